@@ -0,0 +1,240 @@
+package com.deckoptimizer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * AIMD concurrency limiter for calls to slow upstreams (OpenAI).
+ *
+ * The limit grows by roughly one per window of successful calls and is cut by
+ * {@code backoffRatio} whenever a call fails or takes longer than {@code latencyTolerance}
+ * times the baseline latency. The baseline follows faster calls straight away. It only rises
+ * at the end of a window of {@code BASELINE_WINDOW} successful calls, and then only to the
+ * fastest call in that window. A burst of slow calls, or slowness that the shrinking limit
+ * relieves, therefore keeps registering as slow. An upstream that stays slower for a whole
+ * window, even at the reduced limit, becomes the new baseline. Requests over the limit wait in per-client queues
+ * that are served round robin, so one noisy client cannot starve the others. When a
+ * client's queue or the whole queue is full the request is rejected straight away
+ * (429 / 503) with a Retry-After estimate, and queued requests give up after
+ * {@code maxQueueWait} instead of piling up behind the upstream.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    static final int BASELINE_WINDOW = 100;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final int maxQueuePerClient;
+    private final int maxQueueTotal;
+    private final long maxQueueWaitMillis;
+
+    private final Object lock = new Object();
+    private final Map<String, ArrayDeque<CompletableFuture<Permit>>> queues = new HashMap<>();
+    private final ArrayDeque<String> clientRotation = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private double baselineMillis;
+    private long windowMinMillis = Long.MAX_VALUE;
+    private int windowSamples;
+
+    public AdaptiveConcurrencyLimiter(@Value("${deck.admission.initial-limit:8}") int initialLimit,
+                                      @Value("${deck.admission.min-limit:1}") int minLimit,
+                                      @Value("${deck.admission.max-limit:64}") int maxLimit,
+                                      @Value("${deck.admission.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${deck.admission.latency-tolerance:2.0}") double latencyTolerance,
+                                      @Value("${deck.admission.max-queue-per-client:16}") int maxQueuePerClient,
+                                      @Value("${deck.admission.max-queue:64}") int maxQueueTotal,
+                                      @Value("${deck.admission.max-queue-wait-ms:5000}") long maxQueueWaitMillis) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.maxQueuePerClient = maxQueuePerClient;
+        this.maxQueueTotal = maxQueueTotal;
+        this.maxQueueWaitMillis = maxQueueWaitMillis;
+    }
+
+    /**
+     * Wait for a permit, queuing fairly behind other clients if the limit is reached.
+     *
+     * @throws AdmissionRejectedException if the queues are full or the wait times out
+     */
+    public Permit acquire(String clientId) {
+        CompletableFuture<Permit> waiter;
+        synchronized (lock) {
+            if (queued == 0 && inFlight < (int) limit) {
+                inFlight++;
+                return new Permit();
+            }
+            if (queued >= maxQueueTotal) {
+                throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds(),
+                    "Server is at capacity, please retry later");
+            }
+            ArrayDeque<CompletableFuture<Permit>> queue = queues.computeIfAbsent(clientId, k -> new ArrayDeque<>());
+            if (queue.size() >= maxQueuePerClient) {
+                throw new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(),
+                    "Too many concurrent requests from this client");
+            }
+            if (queue.isEmpty()) {
+                clientRotation.addLast(clientId);
+            }
+            waiter = new CompletableFuture<>();
+            queue.addLast(waiter);
+            queued++;
+        }
+
+        try {
+            return waiter.get(maxQueueWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | InterruptedException | ExecutionException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (lock) {
+                if (!waiter.isDone()) {
+                    waiter.cancel(false);
+                    removeWaiter(clientId, waiter);
+                    throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds(),
+                        "Timed out waiting for capacity, please retry later");
+                }
+            }
+            // Granted just as we gave up: keep the permit
+            return waiter.join();
+        }
+    }
+
+    public int getLimit() {
+        synchronized (lock) {
+            return (int) limit;
+        }
+    }
+
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    long getBaselineMillis() {
+        synchronized (lock) {
+            return (long) baselineMillis;
+        }
+    }
+
+    public int getQueued() {
+        synchronized (lock) {
+            return queued;
+        }
+    }
+
+    private void release(long latencyMillis, boolean failed) {
+        synchronized (lock) {
+            inFlight--;
+
+            if (baselineMillis == 0) {
+                baselineMillis = Math.max(1, latencyMillis);
+            }
+            boolean slow = latencyMillis > baselineMillis * latencyTolerance;
+            if (failed || slow) {
+                double previous = limit;
+                limit = Math.max(minLimit, limit * backoffRatio);
+                if ((int) previous != (int) limit) {
+                    logger.info("Concurrency limit decreased to {} (latency {} ms, baseline {} ms, failed={})",
+                        (int) limit, latencyMillis, (long) baselineMillis, failed);
+                }
+            } else if (inFlight + 1 >= (int) limit / 2) {
+                // Only grow while the limit is actually being used
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            if (!failed) {
+                updateBaseline(latencyMillis);
+            }
+
+            dispatch();
+        }
+    }
+
+    private void updateBaseline(long latencyMillis) {
+        // A zero baseline would make every later call look slow
+        latencyMillis = Math.max(1, latencyMillis);
+        baselineMillis = Math.min(baselineMillis, latencyMillis);
+        windowMinMillis = Math.min(windowMinMillis, latencyMillis);
+        if (++windowSamples >= BASELINE_WINDOW) {
+            // Even the fastest call of the window was slower: the upstream itself has slowed down
+            baselineMillis = windowMinMillis;
+            windowMinMillis = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+    }
+
+    // Hand free permits to queued requests, one client at a time
+    private void dispatch() {
+        while (inFlight < (int) limit && !clientRotation.isEmpty()) {
+            String clientId = clientRotation.pollFirst();
+            ArrayDeque<CompletableFuture<Permit>> queue = queues.get(clientId);
+            CompletableFuture<Permit> waiter = queue.pollFirst();
+            queued--;
+            if (queue.isEmpty()) {
+                queues.remove(clientId);
+            } else {
+                clientRotation.addLast(clientId);
+            }
+            inFlight++;
+            waiter.complete(new Permit());
+        }
+    }
+
+    private void removeWaiter(String clientId, CompletableFuture<Permit> waiter) {
+        ArrayDeque<CompletableFuture<Permit>> queue = queues.get(clientId);
+        if (queue != null && queue.remove(waiter)) {
+            queued--;
+            if (queue.isEmpty()) {
+                queues.remove(clientId);
+                clientRotation.remove(clientId);
+            }
+        }
+    }
+
+    // Rough time for the current queue to drain at the current limit
+    private long retryAfterSeconds() {
+        double perCallSeconds = Math.max(1.0, baselineMillis / 1000.0);
+        return Math.max(1, (long) Math.ceil((queued + 1) * perCallSeconds / Math.max(1.0, limit)));
+    }
+
+    /**
+     * A slot under the limit. Closing it records the call latency and frees the slot.
+     */
+    public final class Permit implements AutoCloseable {
+        private final long startNanos = System.nanoTime();
+        private boolean failed;
+        private boolean released;
+
+        public void markFailed() {
+            failed = true;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), failed);
+            }
+        }
+    }
+}
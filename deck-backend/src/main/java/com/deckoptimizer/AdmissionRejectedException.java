@@ -0,0 +1,29 @@
+package com.deckoptimizer;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown by {@link AdaptiveConcurrencyLimiter} or {@link GeneratorAnalytics} when a request
+ * cannot be admitted.
+ * Carries the status to answer with and how long the client should wait before retrying.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(HttpStatus status, long retryAfterSeconds, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,33 @@
+package com.deckoptimizer;
+
+import java.util.List;
+
+/**
+ * One streamed result of a batch analysis. Identical decks in the batch share a single
+ * result, listing every position they appeared at.
+ */
+public class BatchAnalysisResult {
+    private final List<Integer> indices;
+    private final String deckKey;
+    private final String analysis;
+    private final boolean cached;
+    private final String status;
+
+    public BatchAnalysisResult(List<Integer> indices, String deckKey, String analysis, boolean cached, String status) {
+        this.indices = indices;
+        this.deckKey = deckKey;
+        this.analysis = analysis;
+        this.cached = cached;
+        this.status = status;
+    }
+
+    public List<Integer> getIndices() { return indices; }
+
+    public String getDeckKey() { return deckKey; }
+
+    public String getAnalysis() { return analysis; }
+
+    public boolean isCached() { return cached; }
+
+    public String getStatus() { return status; }
+}
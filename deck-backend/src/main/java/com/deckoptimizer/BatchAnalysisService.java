@@ -0,0 +1,116 @@
+package com.deckoptimizer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analyzes a batch of decks with a bounded number of concurrent OpenAI calls.
+ *
+ * Decks are deduplicated by canonical key, cached analyses are emitted immediately and the
+ * remaining decks are fanned out on the bounded-elastic scheduler, at most
+ * {@code deck.analysis.batch-concurrency} at a time. Results are emitted in completion order.
+ */
+@Service
+public class BatchAnalysisService {
+    private static final Logger logger = LoggerFactory.getLogger(BatchAnalysisService.class);
+
+    private final OpenAiAnalysisService openAiAnalysisService;
+    private final ClashRoyaleApiService clashRoyaleApiService;
+    private final DeckAnalysisCache analysisCache;
+    private final AdaptiveConcurrencyLimiter admissionLimiter;
+    private final int concurrency;
+    private final int maxBatchSize;
+
+    public BatchAnalysisService(OpenAiAnalysisService openAiAnalysisService, ClashRoyaleApiService clashRoyaleApiService,
+                                DeckAnalysisCache analysisCache, AdaptiveConcurrencyLimiter admissionLimiter,
+                                @Value("${deck.analysis.batch-concurrency:8}") int concurrency,
+                                @Value("${deck.analysis.batch-max-decks:50}") int maxBatchSize) {
+        this.openAiAnalysisService = openAiAnalysisService;
+        this.clashRoyaleApiService = clashRoyaleApiService;
+        this.analysisCache = analysisCache;
+        this.admissionLimiter = admissionLimiter;
+        this.concurrency = concurrency;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Uncached decks go through the shared admission limiter under {@code clientId}, so a
+     * large batch queues fairly with interactive requests instead of crowding them out.
+     */
+    public Flux<BatchAnalysisResult> analyze(List<List<Card>> decks, String userQuery, String clientId) {
+        Map<String, Group> groups = new LinkedHashMap<>();
+        for (int i = 0; i < decks.size(); i++) {
+            List<Card> deck = decks.get(i);
+            groups.computeIfAbsent(DeckKeys.canonicalKey(deck), key -> new Group(key, deck)).indices.add(i);
+        }
+
+        List<BatchAnalysisResult> cached = new ArrayList<>();
+        List<Group> pending = new ArrayList<>();
+        for (Group group : groups.values()) {
+            String analysis = analysisCache.get(DeckAnalysisCache.cacheKey(group.deckKey, userQuery));
+            if (analysis != null) {
+                cached.add(new BatchAnalysisResult(group.indices, group.deckKey, analysis, true, "success"));
+            } else {
+                pending.add(group);
+            }
+        }
+        logger.info("Batch analysis: {} decks, {} unique, {} cached, {} to analyze",
+            decks.size(), groups.size(), cached.size(), pending.size());
+
+        if (pending.isEmpty()) {
+            return Flux.fromIterable(cached);
+        }
+
+        // Meta data is the same for every deck in the batch, so fetch it once
+        Mono<String> metaData = Mono.fromCallable(clashRoyaleApiService::createMetaAnalysisData)
+            .subscribeOn(Schedulers.boundedElastic())
+            .cache();
+
+        Flux<BatchAnalysisResult> analyzed = metaData.flatMapMany(meta -> Flux.fromIterable(pending)
+            .flatMap(group -> Mono.fromCallable(() -> analyzeGroup(group, userQuery, meta, clientId))
+                .subscribeOn(Schedulers.boundedElastic()), concurrency));
+
+        return Flux.fromIterable(cached).concatWith(analyzed);
+    }
+
+    private BatchAnalysisResult analyzeGroup(Group group, String userQuery, String metaData, String clientId) {
+        String analysis;
+        boolean failed;
+        try (AdaptiveConcurrencyLimiter.Permit permit = admissionLimiter.acquire(clientId)) {
+            analysis = openAiAnalysisService.analyzeDeck(group.deck, userQuery, metaData);
+            failed = OpenAiAnalysisService.ANALYSIS_UNAVAILABLE.equals(analysis);
+            if (failed) {
+                permit.markFailed();
+            }
+        } catch (AdmissionRejectedException e) {
+            return new BatchAnalysisResult(group.indices, group.deckKey, e.getMessage(), false, "rejected");
+        }
+        analysisCache.put(DeckAnalysisCache.cacheKey(group.deckKey, userQuery), analysis);
+        return new BatchAnalysisResult(group.indices, group.deckKey, analysis, false, failed ? "error" : "success");
+    }
+
+    private static final class Group {
+        final String deckKey;
+        final List<Card> deck;
+        final List<Integer> indices = new ArrayList<>();
+
+        Group(String deckKey, List<Card> deck) {
+            this.deckKey = deckKey;
+            this.deck = deck;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.deckoptimizer;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Size-bounded concurrent cache. Reads and writes go straight to a {@link ConcurrentHashMap};
+ * once the map grows past its bound a single thread trims it back to 90% of the bound by
+ * dropping arbitrary entries. Eviction is approximate, but it never blocks readers.
+ */
+public class BoundedCache<K, V> {
+    private final ConcurrentHashMap<K, V> map;
+    private final int maxSize;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public BoundedCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.map = new ConcurrentHashMap<>(Math.min(maxSize, 1 << 16));
+    }
+
+    public V get(K key) {
+        return map.get(key);
+    }
+
+    public void put(K key, V value) {
+        map.put(key, value);
+        evictIfNeeded();
+    }
+
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        V value = map.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = map.computeIfAbsent(key, loader);
+        evictIfNeeded();
+        return value;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    private void evictIfNeeded() {
+        if (map.size() <= maxSize || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int target = maxSize - maxSize / 10;
+            Iterator<K> keys = map.keySet().iterator();
+            while (map.size() > target && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
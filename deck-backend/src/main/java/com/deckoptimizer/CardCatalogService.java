@@ -0,0 +1,48 @@
+package com.deckoptimizer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Serves the card catalog. The JSON bytes and their strong ETag are computed once at
+ * startup, and searches go through a {@link CardSearchIndex}.
+ */
+@Service
+public class CardCatalogService {
+    private final byte[] catalogJson;
+    private final String etag;
+    private final CardSearchIndex searchIndex;
+
+    public CardCatalogService(CardLoader cardLoader, ObjectMapper objectMapper) throws JsonProcessingException {
+        List<Card> cards = cardLoader.getCards();
+        this.catalogJson = objectMapper.writeValueAsBytes(cards);
+        this.etag = "\"" + sha256Hex(catalogJson) + "\"";
+        this.searchIndex = new CardSearchIndex(cards);
+    }
+
+    public byte[] getCatalogJson() {
+        return catalogJson;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public List<Card> search(String query, String role, String type, String rarity, Integer elixir, int limit) {
+        return searchIndex.search(query, role, type, rarity, elixir, limit);
+    }
+
+    private static String sha256Hex(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
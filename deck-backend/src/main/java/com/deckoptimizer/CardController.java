@@ -0,0 +1,53 @@
+package com.deckoptimizer;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cards")
+@CrossOrigin("http://localhost:3000")
+public class CardController {
+    private static final int MAX_RESULTS = 50;
+
+    private final CardCatalogService catalogService;
+
+    public CardController(CardCatalogService catalogService) {
+        this.catalogService = catalogService;
+    }
+
+    /**
+     * Full catalog. Clients revalidate with If-None-Match and get a 304 while it is unchanged.
+     */
+    @GetMapping
+    public ResponseEntity<byte[]> getCatalog(WebRequest request) {
+        String etag = catalogService.getEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(catalogService.getCatalogJson());
+    }
+
+    /**
+     * Typeahead search by name prefix with typo tolerance, optionally filtered.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Card>> search(@RequestParam(value = "q", required = false) String query,
+                                             @RequestParam(required = false) String role,
+                                             @RequestParam(required = false) String type,
+                                             @RequestParam(required = false) String rarity,
+                                             @RequestParam(required = false) Integer elixir,
+                                             @RequestParam(defaultValue = "10") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_RESULTS));
+        return ResponseEntity.ok(catalogService.search(query, role, type, rarity, elixir, boundedLimit));
+    }
+}
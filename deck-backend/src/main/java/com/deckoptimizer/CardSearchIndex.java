@@ -0,0 +1,195 @@
+package com.deckoptimizer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory search index over the card catalog.
+ *
+ * Names are normalized (lower case, no punctuation) and indexed twice: a prefix trie over
+ * every word start, for typeahead, and a trigram index, for typo-tolerant matches scored with
+ * the Dice coefficient. Role, type, rarity and elixir filters are precomputed bitsets over
+ * card ids, so a search is a few bitset operations plus a short sort.
+ */
+public class CardSearchIndex {
+    static final double MIN_FUZZY_SCORE = 0.3;
+
+    private final Card[] cards;
+    private final int[] trigramCounts;
+    private final TrieNode trie = new TrieNode();
+    private final Map<String, int[]> trigrams = new HashMap<>();
+    private final Map<String, BitSet> byRole = new HashMap<>();
+    private final Map<String, BitSet> byType = new HashMap<>();
+    private final Map<String, BitSet> byRarity = new HashMap<>();
+    private final Map<Integer, BitSet> byElixir = new HashMap<>();
+    private final BitSet all = new BitSet();
+
+    public CardSearchIndex(List<Card> catalog) {
+        this.cards = catalog.toArray(new Card[0]);
+        this.trigramCounts = new int[cards.length];
+
+        Map<String, List<Integer>> postings = new HashMap<>();
+        for (int id = 0; id < cards.length; id++) {
+            Card card = cards[id];
+            all.set(id);
+            String name = normalize(card.getName());
+
+            // Index the full name from every word start, so "rider" finds "Hog Rider"
+            for (int start = 0; start < name.length(); start++) {
+                if (start == 0 || name.charAt(start - 1) == ' ') {
+                    trie.insert(name, start, id);
+                }
+            }
+
+            List<String> grams = trigramsOf(name);
+            trigramCounts[id] = grams.size();
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, g -> new ArrayList<>()).add(id);
+            }
+
+            addTo(byRole, key(card.getRole()), id);
+            addTo(byType, key(card.getType()), id);
+            addTo(byRarity, key(card.getRarity()), id);
+            byElixir.computeIfAbsent(card.getElixirCost(), c -> new BitSet()).set(id);
+        }
+        postings.forEach((gram, ids) -> trigrams.put(gram, ids.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /**
+     * Search by name with optional filters. A blank query lists every card that passes the filters.
+     * Prefix matches rank above fuzzy matches; a match on the start of the full name ranks highest.
+     *
+     * @param elixir exact elixir cost, or null for any
+     */
+    public List<Card> search(String query, String role, String type, String rarity, Integer elixir, int limit) {
+        BitSet candidates = (BitSet) all.clone();
+        if (!applyFilter(candidates, byRole, role) || !applyFilter(candidates, byType, type)
+            || !applyFilter(candidates, byRarity, rarity)) {
+            return List.of();
+        }
+        if (elixir != null) {
+            candidates.and(byElixir.getOrDefault(elixir, new BitSet()));
+        }
+
+        String normalized = normalize(query);
+        double[] scores = new double[cards.length];
+        if (normalized.isEmpty()) {
+            candidates.stream().forEach(id -> scores[id] = 1.0);
+        } else {
+            TrieNode node = trie.find(normalized);
+            if (node != null) {
+                node.ids.stream().filter(candidates::get).forEach(id -> scores[id] =
+                    normalize(cards[id].getName()).startsWith(normalized) ? 3.0 : 2.0);
+            }
+            fuzzyScores(normalized, candidates, scores);
+        }
+
+        List<Integer> matches = new ArrayList<>();
+        for (int id = 0; id < cards.length; id++) {
+            if (scores[id] > 0) {
+                matches.add(id);
+            }
+        }
+        matches.sort(Comparator.<Integer>comparingDouble(id -> -scores[id])
+            .thenComparing(id -> cards[id].getName()));
+
+        List<Card> results = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            results.add(cards[matches.get(i)]);
+        }
+        return results;
+    }
+
+    // Dice coefficient over trigrams; only fills cards without a better prefix score
+    private void fuzzyScores(String query, BitSet candidates, double[] scores) {
+        List<String> grams = trigramsOf(query);
+        int[] common = new int[cards.length];
+        for (String gram : grams) {
+            int[] ids = trigrams.get(gram);
+            if (ids != null) {
+                for (int id : ids) {
+                    common[id]++;
+                }
+            }
+        }
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            double dice = 2.0 * common[id] / (grams.size() + trigramCounts[id]);
+            if (dice >= MIN_FUZZY_SCORE && dice > scores[id]) {
+                scores[id] = dice;
+            }
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (char c : text.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            } else if ((c == ' ' || c == '-') && normalized.length() > 0
+                && normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        return normalized.toString().strip();
+    }
+
+    private static List<String> trigramsOf(String normalized) {
+        String padded = "  " + normalized + " ";
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static boolean applyFilter(BitSet candidates, Map<String, BitSet> index, String value) {
+        if (value == null || value.isBlank()) {
+            return true;
+        }
+        BitSet matching = index.get(key(value));
+        if (matching == null) {
+            return false;
+        }
+        candidates.and(matching);
+        return true;
+    }
+
+    private static void addTo(Map<String, BitSet> index, String key, int id) {
+        if (!key.isEmpty()) {
+            index.computeIfAbsent(key, k -> new BitSet()).set(id);
+        }
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class TrieNode {
+        final Map<Character, TrieNode> children = new HashMap<>();
+        final BitSet ids = new BitSet();
+
+        void insert(String word, int start, int id) {
+            TrieNode node = this;
+            for (int i = start; i < word.length(); i++) {
+                node = node.children.computeIfAbsent(word.charAt(i), c -> new TrieNode());
+                node.ids.set(id);
+            }
+        }
+
+        TrieNode find(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            return node;
+        }
+    }
+}
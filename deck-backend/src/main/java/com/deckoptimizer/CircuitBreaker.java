@@ -0,0 +1,72 @@
+package com.deckoptimizer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row the
+ * circuit opens and calls are refused for {@code openMillis}; then a single trial call is let
+ * through, which either closes the circuit again or reopens it. A trial that is abandoned
+ * (cancelled, or with no outcome within another {@code openMillis}) reopens the circuit, so
+ * a lost trial cannot leave it half open forever.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long trialStartedAt;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    public synchronized boolean allowRequest() {
+        long now = System.nanoTime();
+        if (state == State.HALF_OPEN && now - trialStartedAt >= openNanos) {
+            // The trial never reported back
+            open(now);
+        }
+        if (state == State.OPEN && now - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            trialStartedAt = now;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            open(System.nanoTime());
+        }
+    }
+
+    /**
+     * A call ended without an outcome (cancelled). If it was the half-open trial, the next
+     * request becomes a new trial instead of waiting out another open period.
+     */
+    public synchronized void recordCancel() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+            openedAt = System.nanoTime() - openNanos;
+        }
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -2,27 +2,97 @@ package com.deckoptimizer;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.netty.channel.ChannelOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Client for the official Clash Royale API.
+ *
+ * Outbound calls share a pooled connector with connect/response timeouts, are paced by a
+ * token bucket sized to the API key's quota, and are retried with jittered exponential
+ * backoff on 429, 5xx and I/O errors. Repeated failures open a circuit breaker; while it is
+ * open, or when a call ultimately fails, each endpoint serves its last good response.
+ */
 @Service
 public class ClashRoyaleApiService {
     private static final Logger logger = LoggerFactory.getLogger(ClashRoyaleApiService.class);
+
+    static final String CARDS_PATH = "/cards?limit=300";
+    static final String SEASON_PATH = "/locations/global/seasons/current";
+    static final String TOURNAMENTS_PATH = "/globaltournaments";
     
-    private final WebClient webClient;
-    
-    @Value("${clashroyale.api.key}")
-    private String apiKey;
-    
-    private final String baseUrl = "https://api.clashroyale.com/v1";
+    private final Lazy<WebClient> webClient;
+    private final String apiKey;
+    private final String baseUrl;
+    private final TokenBucket rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final Map<String, JsonNode> lastKnownGood = new ConcurrentHashMap<>();
+    private volatile String metaAnalysis;
     
-    public ClashRoyaleApiService() {
-        this.webClient = WebClient.builder()
+    public ClashRoyaleApiService(@Value("${clashroyale.api.key}") String apiKey,
+                                 @Value("${clashroyale.api.base-url:https://api.clashroyale.com/v1}") String baseUrl,
+                                 @Value("${clashroyale.api.rate-limit.permits-per-second:10}") double permitsPerSecond,
+                                 @Value("${clashroyale.api.rate-limit.burst:10}") int burst,
+                                 @Value("${clashroyale.api.connect-timeout-ms:2000}") int connectTimeoutMillis,
+                                 @Value("${clashroyale.api.response-timeout-ms:5000}") long responseTimeoutMillis,
+                                 @Value("${clashroyale.api.pool.max-connections:20}") int maxConnections,
+                                 @Value("${clashroyale.api.pool.pending-acquire-max:100}") int pendingAcquireMax,
+                                 @Value("${clashroyale.api.retry.max-retries:2}") int maxRetries,
+                                 @Value("${clashroyale.api.retry.backoff-ms:200}") long retryBackoffMillis,
+                                 @Value("${clashroyale.api.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                 @Value("${clashroyale.api.circuit-breaker.open-ms:30000}") long openMillis) {
+        this.apiKey = apiKey;
+        this.baseUrl = baseUrl;
+        this.rateLimiter = new TokenBucket(permitsPerSecond, burst);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+        this.maxRetries = maxRetries;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMillis);
+
+        // Built on first use so the Reactor Netty stack stays out of application startup
+        this.webClient = new Lazy<>(() -> createWebClient(connectTimeoutMillis, responseTimeoutMillis,
+            maxConnections, pendingAcquireMax));
+    }
+
+    private WebClient webClient() {
+        return webClient.get();
+    }
+
+    private static WebClient createWebClient(int connectTimeoutMillis, long responseTimeoutMillis,
+                                             int maxConnections, int pendingAcquireMax) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("clash-royale-api")
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMax)
+            .pendingAcquireTimeout(Duration.ofMillis(responseTimeoutMillis))
+            .maxIdleTime(Duration.ofSeconds(30))
+            .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+            .responseTimeout(Duration.ofMillis(responseTimeoutMillis));
+
+        return WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
             .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
             .build();
     }
@@ -31,60 +101,135 @@ public class ClashRoyaleApiService {
      * Get all available cards from Clash Royale Official API
      */
     public Mono<JsonNode> getCards() {
-        return webClient.get()
-            .uri(baseUrl + "/cards?limit=300")
-            .header("Authorization", "Bearer " + apiKey)
-            .header("Accept", "application/json")
-            .retrieve()
-            .bodyToMono(JsonNode.class)
-            .doOnNext(response -> logger.info("Received cards data from Clash Royale API"))
-            .doOnError(error -> logger.error("Error fetching cards: {}", error.getMessage()))
-            .onErrorReturn(createFallbackCardsData());
+        return fetch(CARDS_PATH, "cards");
     }
     
     /**
      * Get current season information (contains meta insights)
      */
     public Mono<JsonNode> getCurrentSeason() {
-        return webClient.get()
-            .uri(baseUrl + "/locations/global/seasons/current")
-            .header("Authorization", "Bearer " + apiKey)
-            .header("Accept", "application/json")
-            .retrieve()
-            .bodyToMono(JsonNode.class)
-            .doOnNext(response -> logger.info("Received current season data"))
-            .doOnError(error -> logger.error("Error fetching season data: {}", error.getMessage()))
-            .onErrorReturn(createFallbackSeasonData());
+        return fetch(SEASON_PATH, "season data");
     }
     
     /**
      * Get global tournament rankings (for meta analysis)
      */
     public Mono<JsonNode> getGlobalTournaments() {
-        return webClient.get()
-            .uri(baseUrl + "/globaltournaments")
-            .header("Authorization", "Bearer " + apiKey)
-            .header("Accept", "application/json")
+        return fetch(TOURNAMENTS_PATH, "tournaments");
+    }
+
+    /**
+     * Conditional GET of the raw response body. Sends If-None-Match when an ETag is known,
+     * so an unchanged resource comes back as 304 with no body. Errors are propagated.
+     */
+    public Mono<ResponseEntity<byte[]>> fetchConditional(String path, String etag) {
+        return guarded(webClient().get()
+            .uri(baseUrl + path)
+            .headers(headers -> {
+                headers.setBearerAuth(apiKey);
+                headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+                if (etag != null) {
+                    headers.setIfNoneMatch(etag);
+                }
+            })
             .retrieve()
-            .bodyToMono(JsonNode.class)
-            .doOnNext(response -> logger.info("Received global tournaments data"))
-            .doOnError(error -> logger.error("Error fetching tournaments: {}", error.getMessage()))
-            .onErrorReturn(createFallbackTournamentData());
+            .toEntity(byte[].class), path);
+    }
+
+    /**
+     * Keep serving the synced snapshot and rebuild the meta summary only when it changed.
+     */
+    @EventListener
+    public void onSnapshotChanged(UpstreamSnapshotChangedEvent event) {
+        lastKnownGood.put(event.getPath(), event.getSnapshot());
+        if (CARDS_PATH.equals(event.getPath())) {
+            metaAnalysis = null;
+        }
+    }
+
+    void restoreSnapshot(String path, JsonNode snapshot) {
+        lastKnownGood.put(path, snapshot);
+    }
+
+    CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * GET that falls back to the last good response for the path, or completes empty
+     * if there has never been one.
+     */
+    private Mono<JsonNode> fetch(String path, String description) {
+        Mono<JsonNode> fallback = Mono.defer(() -> Mono.justOrEmpty(lastKnownGood.get(path)));
+        return guarded(webClient().get()
+                .uri(baseUrl + path)
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Accept", "application/json")
+                .retrieve()
+                .bodyToMono(JsonNode.class), description)
+            .doOnNext(response -> {
+                lastKnownGood.put(path, response);
+                logger.info("Received {} from Clash Royale API", description);
+            })
+            .onErrorResume(error -> fallback);
+    }
+
+    /**
+     * Wrap an upstream call with the circuit breaker, rate limiter and retry policy.
+     */
+    private <T> Mono<T> guarded(Mono<T> call, String description) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.allowRequest()) {
+                logger.debug("Circuit open, not fetching {}", description);
+                return Mono.error(new IllegalStateException("Circuit open for Clash Royale API"));
+            }
+            return Mono.defer(() -> Mono.delay(Duration.ofNanos(rateLimiter.reserve())))
+                .then(call)
+                .retryWhen(Retry.backoff(maxRetries, retryBackoff)
+                    .maxBackoff(retryBackoff.multipliedBy(20))
+                    .jitter(0.5)
+                    .filter(ClashRoyaleApiService::isRetryable)
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .doOnSuccess(response -> circuitBreaker.recordSuccess())
+                .doOnError(error -> {
+                    // Only upstream trouble trips the breaker; a 403 or 404 means it answered
+                    if (isRetryable(error)) {
+                        circuitBreaker.recordFailure();
+                    } else {
+                        circuitBreaker.recordSuccess();
+                    }
+                    logger.error("Error fetching {}: {}", description, error.getMessage());
+                })
+                // Client disconnects, timeouts and zip siblings failing cancel the call
+                .doOnCancel(circuitBreaker::recordCancel);
+        });
+    }
+
+    static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException responseError) {
+            int status = responseError.getStatusCode().value();
+            return status == 429 || status >= 500;
+        }
+        // Connection failures and timeouts
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
     }
     
     /**
      * Create simplified meta analysis data for AI using real API data
      */
     public String createMetaAnalysisData() {
+        String cached = metaAnalysis;
+        if (cached != null) {
+            return cached;
+        }
         try {
-            // Try to get real data from API
-            JsonNode cardsResponse = getCards().block();
+            // Prefer the synced snapshot, otherwise fetch from the API
+            JsonNode items = currentCardItems();
             
-            if (cardsResponse != null && cardsResponse.has("items")) {
+            if (!items.isEmpty()) {
                 StringBuilder metaInfo = new StringBuilder();
                 metaInfo.append("Current Meta Information from Clash Royale API:\n\n");
                 
-                JsonNode items = cardsResponse.get("items");
                 metaInfo.append("Total available cards: ").append(items.size()).append("\n\n");
                 
                 // Analyze cards by elixir cost
@@ -117,7 +262,8 @@ public class ClashRoyaleApiService {
                 metaInfo.append("- Bridge spam and dual-lane pressure strategies\n");
                 metaInfo.append("- Control decks focusing on defensive value\n");
                 
-                return metaInfo.toString();
+                metaAnalysis = metaInfo.toString();
+                return metaAnalysis;
             } else {
                 return getFallbackMetaData();
             }
@@ -133,16 +279,10 @@ public class ClashRoyaleApiService {
      */
     public JsonNode getCardByName(String cardName) {
         try {
-            JsonNode cardsResponse = getCards().block();
-            
-            if (cardsResponse != null && cardsResponse.has("items")) {
-                JsonNode items = cardsResponse.get("items");
-                
-                for (JsonNode card : items) {
-                    if (card.has("name") && 
-                        card.get("name").asText().equalsIgnoreCase(cardName)) {
-                        return card;
-                    }
+            for (JsonNode card : currentCardItems()) {
+                if (card.has("name") && 
+                    card.get("name").asText().equalsIgnoreCase(cardName)) {
+                    return card;
                 }
             }
         } catch (Exception e) {
@@ -166,6 +306,19 @@ public class ClashRoyaleApiService {
         return cardName + ": Stats unavailable";
     }
 
+    /**
+     * Card items from the synced snapshot, else fetched from the API. Empty (never null) when
+     * there is no snapshot yet and the fetch fails or the circuit is open.
+     */
+    private JsonNode currentCardItems() {
+        JsonNode cards = lastKnownGood.get(CARDS_PATH);
+        if (cards == null) {
+            cards = getCards().block();
+        }
+        JsonNode items = cards == null ? null : cards.get("items");
+        return items != null && items.isArray() ? items : JsonNodeFactory.instance.arrayNode();
+    }
+
     private String getFallbackMetaData() {
         return """
             Current Meta Information (September 2025):
@@ -189,17 +342,4 @@ public class ClashRoyaleApiService {
             - Cycle speed affects playstyle significantly
             """;
     }
-    
-    private JsonNode createFallbackCardsData() {
-        // Return a simple fallback structure
-        return null; // We'll handle this in the service
-    }
-    
-    private JsonNode createFallbackSeasonData() {
-        return null;
-    }
-    
-    private JsonNode createFallbackTournamentData() {
-        return null;
-    }
 }
@@ -0,0 +1,51 @@
+package com.deckoptimizer;
+
+/**
+ * Cycle-dependent metrics for a deck, produced by {@link CycleSimulator}.
+ */
+public class CycleMetrics {
+    private final double winConditionReturnSeconds;
+    private final int cheapestFourCardCycle;
+    private final double elixirLeakRatio;
+    private final double cardsPerMinute;
+    private final long simulatedDeckMinutes;
+
+    public CycleMetrics(double winConditionReturnSeconds, int cheapestFourCardCycle,
+                        double elixirLeakRatio, double cardsPerMinute, long simulatedDeckMinutes) {
+        this.winConditionReturnSeconds = winConditionReturnSeconds;
+        this.cheapestFourCardCycle = cheapestFourCardCycle;
+        this.elixirLeakRatio = elixirLeakRatio;
+        this.cardsPerMinute = cardsPerMinute;
+        this.simulatedDeckMinutes = simulatedDeckMinutes;
+    }
+
+    /**
+     * Average seconds between playing a win condition and having it back in hand.
+     * Zero when the deck has no win condition.
+     */
+    public double getWinConditionReturnSeconds() {
+        return winConditionReturnSeconds;
+    }
+
+    /**
+     * Elixir needed to play the four cheapest cards, i.e. the fastest full hand rotation.
+     */
+    public int getCheapestFourCardCycle() {
+        return cheapestFourCardCycle;
+    }
+
+    /**
+     * Fraction of generated elixir wasted while sitting at the elixir cap.
+     */
+    public double getElixirLeakRatio() {
+        return elixirLeakRatio;
+    }
+
+    public double getCardsPerMinute() {
+        return cardsPerMinute;
+    }
+
+    public long getSimulatedDeckMinutes() {
+        return simulatedDeckMinutes;
+    }
+}
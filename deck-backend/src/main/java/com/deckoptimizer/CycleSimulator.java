@@ -0,0 +1,183 @@
+package com.deckoptimizer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo simulation of the hand/queue rotation and elixir regeneration of a deck.
+ *
+ * Cards are referenced by their index in the deck; the first four indices of the rotation
+ * are the hand and the rest are the queue. A played card goes to the back of the queue and
+ * the front of the queue takes its hand slot. The simulated player waits an exponentially
+ * distributed think time, picks a random card from hand and plays it as soon as it is
+ * affordable. Elixir generated while sitting at the cap is counted as leaked.
+ *
+ * The inner loop works on primitive arrays that are allocated once per batch, so a run
+ * does not allocate per step. Batches are spread over the common fork-join pool.
+ */
+@Component
+public class CycleSimulator {
+    static final int HAND_SIZE = 4;
+    static final double ELIXIR_PER_SECOND = 1.0 / 2.8;
+    static final double MAX_ELIXIR = 10.0;
+    static final double STARTING_ELIXIR = 5.0;
+
+    // Accumulator slots of a batch result
+    private static final int LEAKED = 0;
+    private static final int RETURN_SECONDS = 1;
+    private static final int RETURN_COUNT = 2;
+    private static final int PLAYS = 3;
+
+    private final int runs;
+    private final double matchSeconds;
+    private final double thinkSeconds;
+    private final long seed;
+
+    public CycleSimulator(@Value("${deck.simulation.runs:2000}") int runs,
+                          @Value("${deck.simulation.match-seconds:180}") double matchSeconds,
+                          @Value("${deck.simulation.think-seconds:2.0}") double thinkSeconds,
+                          @Value("${deck.simulation.seed:0}") long seed) {
+        this.runs = runs;
+        this.matchSeconds = matchSeconds;
+        this.thinkSeconds = thinkSeconds;
+        this.seed = seed;
+    }
+
+    /**
+     * Simulate a deck with the configured number of runs.
+     */
+    public CycleMetrics simulate(List<Card> deck) {
+        return simulate(deck, runs);
+    }
+
+    public CycleMetrics simulate(List<Card> deck, int runCount) {
+        int[] costs = new int[deck.size()];
+        boolean[] winConditions = new boolean[deck.size()];
+        for (int i = 0; i < deck.size(); i++) {
+            Card card = deck.get(i);
+            costs[i] = card.getElixirCost();
+            winConditions[i] = "WinCondition".equals(card.getRole());
+        }
+        return simulate(costs, winConditions, runCount);
+    }
+
+    /**
+     * Simulate a deck given as card costs and a win condition mask over the same card ids.
+     */
+    public CycleMetrics simulate(int[] costs, boolean[] winConditions, int runCount) {
+        if (costs.length == 0 || runCount <= 0) {
+            return new CycleMetrics(0.0, 0, 0.0, 0.0, 0L);
+        }
+
+        // Split the work into a few batches per core, each with its own random stream.
+        // Streams are split up front so results only depend on the seed.
+        int batches = Math.min(runCount, Runtime.getRuntime().availableProcessors() * 4);
+        SplittableRandom root = seed == 0 ? new SplittableRandom() : new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[batches];
+        for (int i = 0; i < batches; i++) {
+            randoms[i] = root.split();
+        }
+
+        double[] totals = IntStream.range(0, batches)
+            .parallel()
+            .mapToObj(b -> {
+                int batchRuns = runCount / batches + (b < runCount % batches ? 1 : 0);
+                return runBatch(costs, winConditions, batchRuns, randoms[b]);
+            })
+            .reduce(new double[4], (a, b) -> {
+                double[] sum = new double[4];
+                for (int i = 0; i < sum.length; i++) {
+                    sum[i] = a[i] + b[i];
+                }
+                return sum;
+            });
+
+        double simulatedMinutes = runCount * matchSeconds / 60.0;
+        double generatedElixir = runCount * (STARTING_ELIXIR + matchSeconds * ELIXIR_PER_SECOND);
+        double returnSeconds = totals[RETURN_COUNT] > 0 ? totals[RETURN_SECONDS] / totals[RETURN_COUNT] : 0.0;
+
+        return new CycleMetrics(
+            returnSeconds,
+            cheapestFourCardCycle(costs),
+            totals[LEAKED] / generatedElixir,
+            totals[PLAYS] / simulatedMinutes,
+            (long) simulatedMinutes);
+    }
+
+    static int cheapestFourCardCycle(int[] costs) {
+        int[] sorted = costs.clone();
+        Arrays.sort(sorted);
+        int sum = 0;
+        for (int i = 0; i < Math.min(HAND_SIZE, sorted.length); i++) {
+            sum += sorted[i];
+        }
+        return sum;
+    }
+
+    private double[] runBatch(int[] costs, boolean[] winConditions, int batchRuns, SplittableRandom random) {
+        int n = costs.length;
+        int hand = Math.min(HAND_SIZE, n);
+        int[] rotation = new int[n];
+        double[] playedAt = new double[n];
+        double[] acc = new double[4];
+
+        for (int run = 0; run < batchRuns; run++) {
+            for (int i = 0; i < n; i++) {
+                rotation[i] = i;
+                playedAt[i] = -1.0;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = rotation[i];
+                rotation[i] = rotation[j];
+                rotation[j] = tmp;
+            }
+
+            double elixir = STARTING_ELIXIR;
+            double time = 0.0;
+            while (true) {
+                // Think, then wait for the chosen card to become affordable
+                double think = -thinkSeconds * Math.log(1.0 - random.nextDouble());
+                int slot = random.nextInt(hand);
+                int card = rotation[slot];
+                int cost = costs[card];
+
+                double thinkEnd = Math.min(time + think, matchSeconds);
+                elixir += (thinkEnd - time) * ELIXIR_PER_SECOND;
+                if (elixir > MAX_ELIXIR) {
+                    acc[LEAKED] += elixir - MAX_ELIXIR;
+                    elixir = MAX_ELIXIR;
+                }
+                time = thinkEnd;
+                if (elixir < cost) {
+                    time += (cost - elixir) / ELIXIR_PER_SECOND;
+                    elixir = cost;
+                }
+                if (time >= matchSeconds) {
+                    break;
+                }
+
+                elixir -= cost;
+                acc[PLAYS]++;
+                playedAt[card] = time;
+
+                if (n > hand) {
+                    int next = rotation[hand];
+                    System.arraycopy(rotation, hand + 1, rotation, hand, n - hand - 1);
+                    rotation[n - 1] = card;
+                    rotation[slot] = next;
+                    if (winConditions[next] && playedAt[next] >= 0) {
+                        acc[RETURN_SECONDS] += time - playedAt[next];
+                        acc[RETURN_COUNT]++;
+                    }
+                }
+            }
+        }
+        return acc;
+    }
+}
@@ -0,0 +1,77 @@
+package com.deckoptimizer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Cache of AI analyses keyed by canonical deck key plus a SHA-256 of the normalized user query.
+ * Entries live in memory and in the {@link PersistentCacheTier}, which is consulted on a
+ * memory miss so analyses survive restarts.
+ */
+@Component
+public class DeckAnalysisCache {
+    private static final String TIER_PREFIX = "analysis:";
+
+    private final BoundedCache<String, String> analyses;
+    private final PersistentCacheTier persistentTier;
+
+    public DeckAnalysisCache(@Value("${deck.analysis.cache-size:5000}") int cacheSize, PersistentCacheTier persistentTier) {
+        this.analyses = new BoundedCache<>(cacheSize);
+        this.persistentTier = persistentTier;
+    }
+
+    public static String cacheKey(List<Card> deck, String userQuery) {
+        return cacheKey(DeckKeys.canonicalKey(deck), userQuery);
+    }
+
+    // SHA-256 rather than String.hashCode, so two different questions never share an answer
+    public static String cacheKey(String deckKey, String userQuery) {
+        String query = userQuery == null ? "" : userQuery.strip().toLowerCase(Locale.ROOT);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            return deckKey + '#' + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public String get(String key) {
+        String analysis = analyses.get(key);
+        if (analysis == null) {
+            analysis = persistentTier.get(TIER_PREFIX + key);
+            if (analysis != null) {
+                analyses.put(key, analysis);
+            }
+        }
+        return analysis;
+    }
+
+    /**
+     * Analyses embed meta data, so they are dropped when the card or season data changes.
+     */
+    @EventListener
+    public void onSnapshotChanged(UpstreamSnapshotChangedEvent event) {
+        if (!ClashRoyaleApiService.TOURNAMENTS_PATH.equals(event.getPath())) {
+            analyses.clear();
+            persistentTier.removeByPrefix(TIER_PREFIX);
+        }
+    }
+
+    /**
+     * Store an analysis. The fallback message from a failed OpenAI call is never cached.
+     */
+    public void put(String key, String analysis) {
+        if (analysis != null && !OpenAiAnalysisService.ANALYSIS_UNAVAILABLE.equals(analysis)) {
+            analyses.put(key, analysis);
+            persistentTier.put(TIER_PREFIX + key, analysis);
+        }
+    }
+}
@@ -2,12 +2,18 @@ package com.deckoptimizer;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class DeckBackendApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(DeckBackendApplication.class, args);
+		SpringApplication application = new SpringApplication(DeckBackendApplication.class);
+		// Recorded startup steps feed the StartupTimingReport logged once the app is ready
+		application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		application.run(args);
 	}
 
 }
@@ -1,7 +1,11 @@
 package com.deckoptimizer;
 
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
@@ -13,16 +17,33 @@ public class DeckController {
     private final DeckService service;
     private final ClashRoyaleApiService clashRoyaleApiService;
     private final OpenAiAnalysisService openAiAnalysisService;
+    private final MatchupEvaluator matchupEvaluator;
+    private final DeckAnalysisCache analysisCache;
+    private final BatchAnalysisService batchAnalysisService;
+    private final AdaptiveConcurrencyLimiter admissionLimiter;
+    private final DeckPool deckPool;
+    private final GeneratorAnalytics generatorAnalytics;
+    private final PersistentCacheTier persistentTier;
 
-    public DeckController(DeckService service, ClashRoyaleApiService clashRoyaleApiService, OpenAiAnalysisService openAiAnalysisService) {
+    public DeckController(DeckService service, ClashRoyaleApiService clashRoyaleApiService, OpenAiAnalysisService openAiAnalysisService,
+                          MatchupEvaluator matchupEvaluator, DeckAnalysisCache analysisCache, BatchAnalysisService batchAnalysisService,
+                          AdaptiveConcurrencyLimiter admissionLimiter, DeckPool deckPool, GeneratorAnalytics generatorAnalytics,
+                          PersistentCacheTier persistentTier) {
         this.service = service;
         this.clashRoyaleApiService = clashRoyaleApiService;
         this.openAiAnalysisService = openAiAnalysisService;
+        this.matchupEvaluator = matchupEvaluator;
+        this.analysisCache = analysisCache;
+        this.batchAnalysisService = batchAnalysisService;
+        this.admissionLimiter = admissionLimiter;
+        this.deckPool = deckPool;
+        this.generatorAnalytics = generatorAnalytics;
+        this.persistentTier = persistentTier;
     }
 
     @GetMapping("/generate")
     public ResponseEntity<Deck> getDeck() {
-        Deck deck = service.generateBalancedDeck();
+        Deck deck = deckPool.next();
         // Add cache control headers to prevent image caching issues
         return ResponseEntity
             .ok()
@@ -32,6 +53,36 @@ public class DeckController {
             .body(deck);
     }
 
+    @GetMapping("/generate/pool")
+    public ResponseEntity<Map<String, Object>> getDeckPoolStats() {
+        return ResponseEntity.ok(deckPool.getStats());
+    }
+
+    @GetMapping("/cache/persistent")
+    public ResponseEntity<Map<String, Object>> getPersistentCacheStats() {
+        return ResponseEntity.ok(persistentTier.getStats());
+    }
+
+    /**
+     * Generate many balanced decks and report how cards, pairs, elixir averages and
+     * warnings are distributed, to spot generator bias.
+     */
+    @GetMapping("/analytics/generator")
+    public ResponseEntity<Map<String, Object>> getGeneratorAnalytics(@RequestParam(defaultValue = "100000") long decks,
+                                                                     @RequestParam(defaultValue = "1") long seed) {
+        if (decks <= 0 || decks > generatorAnalytics.getMaxDecks()) {
+            return ResponseEntity.badRequest().body(Map.of("status", "error",
+                "message", "decks must be between 1 and " + generatorAnalytics.getMaxDecks()));
+        }
+        try {
+            return ResponseEntity.ok(generatorAnalytics.run(decks, seed));
+        } catch (AdmissionRejectedException e) {
+            return ResponseEntity.status(e.getStatus())
+                .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("status", "error", "message", e.getMessage()));
+        }
+    }
+
     @PostMapping("/generate/custom")
     public ResponseEntity<DeckResponse> getCustomDeck(@RequestBody Map<String, List<Card>> request) {
         List<Card> selectedCards = request.get("selectedCards");
@@ -44,30 +95,76 @@ public class DeckController {
             .body(response);
     }
 
+    @PostMapping("/matchup")
+    public ResponseEntity<Map<String, Object>> evaluateMatchup(@RequestBody Map<String, Object> request) {
+        List<Card> deckA;
+        List<Card> deckB;
+        try {
+            deckA = toCatalogDeck(request.get("deckA"), "deckA");
+            deckB = toCatalogDeck(request.get("deckB"), "deckB");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("status", "error", "message", e.getMessage()));
+        }
+        double score = matchupEvaluator.evaluate(deckA, deckB);
+        String favored = Math.abs(score) <= MatchupEvaluator.DRAW_MARGIN ? "even" : score > 0 ? "deckA" : "deckB";
+        return ResponseEntity.ok(Map.of("score", score, "favored", favored));
+    }
+
+    /**
+     * Round robin over the submitted decks. The field is capped because scoring is quadratic
+     * in the number of decks and runs on the request thread.
+     */
+    @PostMapping("/tournament")
+    public ResponseEntity<?> runTournament(@RequestBody Map<String, Object> request) {
+        int maxDecks = matchupEvaluator.getMaxTournamentDecks();
+        if (!(request.get("decks") instanceof List<?> decksData) || decksData.size() < 2 || decksData.size() > maxDecks) {
+            return ResponseEntity.badRequest().body(Map.of("status", "error",
+                "message", "decks must be a list of 2 to " + maxDecks + " decks"));
+        }
+        List<List<Card>> decks = new ArrayList<>();
+        try {
+            for (int i = 0; i < decksData.size(); i++) {
+                decks.add(toCatalogDeck(decksData.get(i), "decks[" + i + "]"));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("status", "error", "message", e.getMessage()));
+        }
+        return ResponseEntity.ok(matchupEvaluator.runTournament(decks));
+    }
+
     @PostMapping("/analyze")
-    public ResponseEntity<Map<String, String>> analyzeDeck(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<Map<String, String>> analyzeDeck(@RequestBody Map<String, Object> request,
+                                                           @RequestHeader(value = "X-Client-Id", required = false) String clientHeader,
+                                                           HttpServletRequest httpRequest) {
         try {
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> deckData = (List<Map<String, Object>>) request.get("deck");
             String userQuery = (String) request.get("query");
             
-            // Convert JSON deck data to Card objects
-            List<Card> deck = new ArrayList<>();
-            for (Map<String, Object> cardData : deckData) {
-                Card card = new Card();
-                card.setName((String) cardData.get("name"));
-                card.setElixirCost(((Number) cardData.get("elixirCost")).intValue());
-                card.setType((String) cardData.get("type"));
-                card.setRole((String) cardData.get("role"));
-                card.setImageUrl((String) cardData.get("imageUrl"));
-                deck.add(card);
-            }
-            
-            // Get meta data from Clash Royale Official API
-            String metaData = clashRoyaleApiService.createMetaAnalysisData();
+            List<Card> deck = toCards(request.get("deck"));
             
-            // Generate AI analysis
-            String analysis = openAiAnalysisService.analyzeDeck(deck, userQuery, metaData);
+            String cacheKey = DeckAnalysisCache.cacheKey(deck, userQuery);
+            // Cache hits skip admission control entirely
+            String analysis = analysisCache.get(cacheKey);
+            if (analysis == null) {
+                // Get meta data from Clash Royale Official API before taking a permit, so its
+                // latency does not feed the OpenAI concurrency limit
+                String metaData = clashRoyaleApiService.createMetaAnalysisData();
+
+                try (AdaptiveConcurrencyLimiter.Permit permit = admissionLimiter.acquire(clientId(clientHeader, httpRequest))) {
+                    // Generate AI analysis
+                    analysis = openAiAnalysisService.analyzeDeck(deck, userQuery, metaData);
+                    if (OpenAiAnalysisService.ANALYSIS_UNAVAILABLE.equals(analysis)) {
+                        permit.markFailed();
+                    }
+                }
+                analysisCache.put(cacheKey, analysis);
+            }
+
+            // Upstream failures must be visible to clients and load tests, not a 200 with an apology
+            if (OpenAiAnalysisService.ANALYSIS_UNAVAILABLE.equals(analysis)) {
+                return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                    .header("Cache-Control", "no-cache, no-store, must-revalidate")
+                    .body(Map.of("analysis", analysis, "status", "error", "message", "Deck analysis is unavailable right now"));
+            }
             
             Map<String, String> response = Map.of(
                 "analysis", analysis,
@@ -80,6 +177,10 @@ public class DeckController {
                 .header("Expires", "0")
                 .body(response);
                 
+        } catch (AdmissionRejectedException e) {
+            return ResponseEntity.status(e.getStatus())
+                .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("status", "error", "message", e.getMessage()));
         } catch (Exception e) {
             Map<String, String> errorResponse = Map.of(
                 "analysis", "Sorry, I couldn't analyze your deck. Please try again.",
@@ -89,4 +190,87 @@ public class DeckController {
             return ResponseEntity.badRequest().body(errorResponse);
         }
     }
+
+    /**
+     * Analyze many decks at once. Results are streamed as newline-delimited JSON as soon as
+     * each deck finishes; cached decks come first and duplicate decks are analyzed once.
+     * Every deck is validated up front; an invalid request gets a 400 with a single error
+     * line naming the offending deck.
+     */
+    @PostMapping(value = "/analyze/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<?>> analyzeDecks(@RequestBody Map<String, Object> request,
+                                                @RequestHeader(value = "X-Client-Id", required = false) String clientHeader,
+                                                HttpServletRequest httpRequest) {
+        if (!(request.get("decks") instanceof List<?> decksData) || decksData.isEmpty()) {
+            return batchError("decks are required");
+        }
+        if (decksData.size() > batchAnalysisService.getMaxBatchSize()) {
+            return batchError("at most " + batchAnalysisService.getMaxBatchSize() + " decks per batch");
+        }
+        String userQuery = request.get("query") instanceof String query ? query : null;
+
+        List<List<Card>> decks = new ArrayList<>();
+        for (int i = 0; i < decksData.size(); i++) {
+            try {
+                decks.add(toCards(decksData.get(i)));
+            } catch (IllegalArgumentException e) {
+                return batchError("decks[" + i + "]: " + e.getMessage());
+            }
+        }
+        return ResponseEntity.ok(batchAnalysisService.analyze(decks, userQuery, clientId(clientHeader, httpRequest)));
+    }
+
+    private static ResponseEntity<Flux<?>> batchError(String message) {
+        return ResponseEntity.badRequest().body(Flux.just(Map.of("status", "error", "message", message)));
+    }
+
+    // Clients may identify themselves; otherwise fair queuing falls back to the remote address
+    private static String clientId(String clientHeader, HttpServletRequest httpRequest) {
+        return clientHeader != null && !clientHeader.isBlank() ? clientHeader : httpRequest.getRemoteAddr();
+    }
+
+    /**
+     * Convert JSON deck data to Card objects.
+     *
+     * @throws IllegalArgumentException if the deck is not a list of 1 to 8 cards with a name
+     *         and a numeric elixir cost
+     */
+    private static List<Card> toCards(Object deckData) {
+        if (!(deckData instanceof List<?> cards) || cards.isEmpty() || cards.size() > 8) {
+            throw new IllegalArgumentException("a deck must be a list of 1 to 8 cards");
+        }
+        List<Card> deck = new ArrayList<>();
+        for (int i = 0; i < cards.size(); i++) {
+            if (!(cards.get(i) instanceof Map<?, ?> cardData)
+                    || !(cardData.get("name") instanceof String name) || name.isBlank()
+                    || !(cardData.get("elixirCost") instanceof Number elixirCost)) {
+                throw new IllegalArgumentException("card " + i + " needs a name and a numeric elixirCost");
+            }
+            Card card = new Card();
+            card.setName(name);
+            card.setElixirCost(elixirCost.intValue());
+            card.setType(optionalString(cardData, "type"));
+            card.setRole(optionalString(cardData, "role"));
+            card.setImageUrl(optionalString(cardData, "imageUrl"));
+            deck.add(card);
+        }
+        return deck;
+    }
+
+    // Validated like every other deck, then resolved against the catalog so scores never use client metadata
+    private List<Card> toCatalogDeck(Object deckData, String label) {
+        try {
+            return service.resolveCards(toCards(deckData));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(label + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String optionalString(Map<?, ?> cardData, String field) {
+        Object value = cardData.get(field);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException(field + " must be a string");
+        }
+        return (String) value;
+    }
 }
@@ -0,0 +1,25 @@
+package com.deckoptimizer;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Canonical, order-independent keys for decks, used wherever results are cached per deck.
+ */
+public final class DeckKeys {
+
+    private DeckKeys() {
+    }
+
+    /**
+     * Lower-cased card names, sorted and joined with commas, so the same eight cards
+     * always map to the same key regardless of the order they were sent in.
+     */
+    public static String canonicalKey(List<Card> cards) {
+        return cards.stream()
+            .map(card -> card.getName() == null ? "" : card.getName().trim().toLowerCase(Locale.ROOT))
+            .sorted()
+            .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,129 @@
+package com.deckoptimizer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pool of pre-generated balanced decks, so {@code /api/generate} is a dequeue instead of a
+ * randomized search on the request thread.
+ *
+ * A background producer refills the ring buffer up to the high watermark whenever it drops
+ * to the low watermark, then sleeps until a consumer wakes it. When the pool is empty decks
+ * are generated inline as before.
+ */
+@Component
+public class DeckPool {
+    private static final Logger logger = LoggerFactory.getLogger(DeckPool.class);
+
+    private final DeckService deckService;
+    private final boolean enabled;
+    private final RingBuffer<Deck> buffer;
+    private final int lowWatermark;
+    private final int highWatermark;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder produced = new LongAdder();
+    private volatile long fillingNanos;
+    private volatile boolean running;
+    private Thread producer;
+
+    public DeckPool(DeckService deckService,
+                    @Value("${deck.pool.enabled:true}") boolean enabled,
+                    @Value("${deck.pool.capacity:1024}") int capacity,
+                    @Value("${deck.pool.low-watermark:256}") int lowWatermark,
+                    @Value("${deck.pool.high-watermark:1024}") int highWatermark) {
+        this.deckService = deckService;
+        this.enabled = enabled;
+        this.buffer = new RingBuffer<>(capacity);
+        this.highWatermark = Math.min(highWatermark, buffer.capacity());
+        this.lowWatermark = Math.min(lowWatermark, this.highWatermark);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        producer = new Thread(this::produce, "deck-pool-producer");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (producer != null) {
+            LockSupport.unpark(producer);
+        }
+    }
+
+    /**
+     * Take a pre-generated deck, or generate one inline if the pool is empty.
+     */
+    public Deck next() {
+        Deck deck = buffer.poll();
+        if (deck != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            deck = deckService.generateBalancedDeck();
+        }
+        if (producer != null && buffer.size() <= lowWatermark) {
+            LockSupport.unpark(producer);
+        }
+        return deck;
+    }
+
+    public Map<String, Object> getStats() {
+        long total = produced.sum();
+        long nanos = fillingNanos;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("depth", buffer.size());
+        stats.put("capacity", buffer.capacity());
+        stats.put("lowWatermark", lowWatermark);
+        stats.put("highWatermark", highWatermark);
+        stats.put("produced", total);
+        stats.put("refillDecksPerSecond", nanos > 0 ? total * 1e9 / nanos : 0.0);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        return stats;
+    }
+
+    private void produce() {
+        while (running) {
+            if (buffer.size() <= lowWatermark) {
+                long start = System.nanoTime();
+                int added = 0;
+                while (running && buffer.size() < highWatermark) {
+                    try {
+                        if (!buffer.offer(deckService.buildBalancedDeck())) {
+                            break;
+                        }
+                        produced.increment();
+                        added++;
+                    } catch (RuntimeException e) {
+                        logger.warn("Deck pool producer failed to generate a deck: {}", e.getMessage());
+                        break;
+                    }
+                }
+                fillingNanos += System.nanoTime() - start;
+                logger.debug("Deck pool refilled with {} decks, depth {}", added, buffer.size());
+            }
+            // Woken early by consumers when the pool runs low
+            LockSupport.parkNanos(this, TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+}
@@ -6,11 +6,17 @@ public class DeckResponse {
     private final List<Card> deck;
     private final double averageElixir;
     private final List<String> warnings;
+    private final CycleMetrics cycleMetrics;
 
     public DeckResponse(List<Card> deck, double averageElixir, List<String> warnings) {
+        this(deck, averageElixir, warnings, null);
+    }
+
+    public DeckResponse(List<Card> deck, double averageElixir, List<String> warnings, CycleMetrics cycleMetrics) {
         this.deck = deck;
         this.averageElixir = averageElixir;
         this.warnings = warnings;
+        this.cycleMetrics = cycleMetrics;
     }
 
     // Add getters
@@ -25,4 +31,8 @@ public class DeckResponse {
     public List<String> getWarnings() {
         return warnings;
     }
+
+    public CycleMetrics getCycleMetrics() {
+        return cycleMetrics;
+    }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 
@@ -12,26 +13,74 @@ import java.util.ArrayList;
 public class DeckService {
     private static final Logger logger = LoggerFactory.getLogger(DeckService.class);
     private final CardLoader cardLoader;
+    private final CycleSimulator cycleSimulator;
+    private final Map<String, Card> catalogByName = new HashMap<>();
 
-    public DeckService(CardLoader cardLoader) {
+    public DeckService(CardLoader cardLoader, CycleSimulator cycleSimulator) {
         this.cardLoader = cardLoader;
+        this.cycleSimulator = cycleSimulator;
         // Add debug logging
         List<Card> allCards = cardLoader.getCards();
-        logger.info("Loaded cards:");
-        allCards.forEach(card -> logger.info("Card: {}, Image: {}", card.getName(), card.getImageUrl()));
+        for (Card card : allCards) {
+            catalogByName.putIfAbsent(catalogKey(card.getName()), card);
+        }
+        logger.info("Loaded {} cards", allCards.size());
+        if (logger.isDebugEnabled()) {
+            allCards.forEach(card -> logger.debug("Card: {}, Image: {}", card.getName(), card.getImageUrl()));
+        }
         
         // Specifically check for X-Bow
         Optional<Card> xbow = allCards.stream()
             .filter(c -> "X-Bow".equals(c.getName()))
             .findFirst();
         if (xbow.isPresent()) {
-            logger.info("X-Bow found: {}", xbow.get().getImageUrl());
+            logger.debug("X-Bow found: {}", xbow.get().getImageUrl());
         } else {
             logger.warn("X-Bow not found in loaded cards!");
         }
     }
 
+    /**
+     * Replace client-supplied cards with the catalog cards of the same name, so cost, role
+     * and type always come from the server.
+     *
+     * @throws IllegalArgumentException if a card is not in the catalog
+     */
+    public List<Card> resolveCards(List<Card> cards) {
+        List<Card> resolved = new ArrayList<>(cards.size());
+        for (Card card : cards) {
+            Card known = catalogByName.get(catalogKey(card.getName()));
+            if (known == null) {
+                throw new IllegalArgumentException("unknown card: " + card.getName());
+            }
+            resolved.add(known);
+        }
+        return resolved;
+    }
+
+    private static String catalogKey(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
     public Deck generateBalancedDeck() {
+        Deck deck = buildBalancedDeck();
+        logger.info("Generated deck: {}", deck.getCards().stream().map(Card::getName).collect(Collectors.toList()));
+        return deck;
+    }
+
+    /**
+     * Same as {@link #generateBalancedDeck()} without logging, for background producers
+     * that build decks in bulk.
+     */
+    Deck buildBalancedDeck() {
+        return buildBalancedDeck(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Build a balanced deck drawing all randomness from {@code random}, so parallel callers
+     * do not contend on a shared generator.
+     */
+    Deck buildBalancedDeck(Random random) {
         List<Card> allCards = cardLoader.getCards();
         if (allCards.isEmpty()) {
             throw new RuntimeException("No cards available");
@@ -45,9 +94,9 @@ public class DeckService {
                 .filter(c -> "WinCondition".equals(c.getRole()))
                 .collect(Collectors.toList()));
             if (!winConditions.isEmpty()) {
-                Collections.shuffle(winConditions);
+                Collections.shuffle(winConditions, random);
                 deck.add(winConditions.get(0));
-                if (Math.random() < 0.25 && winConditions.size() > 1) {
+                if (random.nextDouble() < 0.25 && winConditions.size() > 1) {
                     deck.add(winConditions.get(1));
                 }
             }
@@ -58,9 +107,9 @@ public class DeckService {
                 .filter(c -> c.getRole().contains("Spell"))
                 .collect(Collectors.toList()));
             if (!spells.isEmpty()) {
-                Collections.shuffle(spells);
+                Collections.shuffle(spells, random);
                 deck.add(spells.get(0));
-                if (Math.random() < 0.7 && spells.size() > 1) {
+                if (random.nextDouble() < 0.7 && spells.size() > 1) {
                     deck.add(spells.get(1));
                 }
             }
@@ -72,7 +121,7 @@ public class DeckService {
                 .collect(Collectors.toList()));
 
             while (deck.size() < 8 && !remainingCards.isEmpty()) {
-                Collections.shuffle(remainingCards);
+                Collections.shuffle(remainingCards, random);
                 Card nextCard = remainingCards.get(0);
                 if (deck.add(nextCard)) {  // Will only add if not already present
                     remainingCards.remove(0);
@@ -95,8 +144,6 @@ public class DeckService {
                     continue; // Try again if duplicates found
                 }
                 
-                logger.info("Generated deck: {}", finalDeck.stream().map(Card::getName).collect(Collectors.toList()));
-                
                 double avgElixir = finalDeck.stream()
                     .mapToInt(Card::getElixirCost)
                     .average()
@@ -127,7 +174,8 @@ public class DeckService {
     // Update custom deck generation to use similar logic
     public DeckResponse generateCustomDeck(List<Card> selectedCards) {
         if (selectedCards == null || selectedCards.isEmpty()) {
-            return new DeckResponse(generateBalancedDeck().getCards(), 0.0, List.of());
+            List<Card> generated = generateBalancedDeck().getCards();
+            return new DeckResponse(generated, 0.0, List.of(), cycleSimulator.simulate(generated));
         }
 
         List<Card> allCards = cardLoader.getCards();
@@ -161,10 +209,10 @@ public class DeckService {
         // Validate the complete deck, not just the selected cards
         List<String> warnings = validateDeck(deck);
 
-        return new DeckResponse(deck, finalAvg, warnings);
+        return new DeckResponse(deck, finalAvg, warnings, cycleSimulator.simulate(deck));
     }
 
-    private List<String> validateDeck(List<Card> cards) {
+    List<String> validateDeck(List<Card> cards) {
         List<String> warnings = new ArrayList<>();
         
         // Count roles
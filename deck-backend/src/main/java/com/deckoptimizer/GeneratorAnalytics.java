@@ -0,0 +1,289 @@
+package com.deckoptimizer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the output distribution of {@link DeckService#buildBalancedDeck}: per-card
+ * inclusion, pair co-occurrence, elixir averages, win condition counts and validation warnings.
+ *
+ * Decks are generated in batches on a small dedicated pool, one run at a time. Each batch counts into its own primitive arrays
+ * and merges them into the shared striped counters once at the end, so the shared counters
+ * are touched once per batch rather than once per deck.
+ */
+@Service
+public class GeneratorAnalytics {
+    private static final Logger logger = LoggerFactory.getLogger(GeneratorAnalytics.class);
+
+    private static final int DECK_SIZE = 8;
+    private static final int MAX_TOTAL_ELIXIR = 10 * DECK_SIZE;
+    private static final int TOP_PAIRS = 25;
+
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    private final DeckService deckService;
+    private final CardLoader cardLoader;
+    private final long maxDecks;
+    private final int threads;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public GeneratorAnalytics(DeckService deckService, CardLoader cardLoader,
+                              @Value("${deck.analytics.max-decks:1000000}") long maxDecks,
+                              @Value("${deck.analytics.threads:2}") int threads) {
+        this.deckService = deckService;
+        this.cardLoader = cardLoader;
+        this.maxDecks = maxDecks;
+        this.threads = Math.max(1, threads);
+        // Own small pool, so a run never competes with parallel streams on the common pool
+        this.executor = Executors.newFixedThreadPool(this.threads, r -> {
+            Thread thread = new Thread(r, "generator-analytics");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public long getMaxDecks() {
+        return maxDecks;
+    }
+
+    /**
+     * Run the analysis on the dedicated pool and wait for the report. Only one run is
+     * allowed at a time.
+     *
+     * @throws AdmissionRejectedException with 429 if another run is in progress
+     */
+    public Map<String, Object> run(long requestedDecks, long seed) {
+        if (!running.compareAndSet(false, true)) {
+            throw new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS, RETRY_AFTER_SECONDS,
+                "A generator analytics run is already in progress");
+        }
+        try {
+            return generate(requestedDecks, seed);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Map<String, Object> generate(long requestedDecks, long seed) {
+        long decks = Math.max(1, Math.min(requestedDecks, maxDecks));
+        List<Card> cards = cardLoader.getCards();
+        int n = cards.size();
+        Map<Card, Integer> ids = new IdentityHashMap<>();
+        for (int i = 0; i < n; i++) {
+            ids.put(cards.get(i), i);
+        }
+
+        LongAdder[] inclusion = adders(n);
+        LongAdder[] elixirTotals = adders(MAX_TOTAL_ELIXIR + 1);
+        LongAdder[] winConditionCounts = adders(DECK_SIZE + 1);
+        AtomicLongArray pairs = new AtomicLongArray(n * n);
+        Map<String, LongAdder> warnings = new ConcurrentHashMap<>();
+        LongAdder failures = new LongAdder();
+
+        int batches = (int) Math.min(decks, threads * 4L);
+        SplittableRandom root = new SplittableRandom(seed);
+        long[] batchSeeds = new long[batches];
+        for (int b = 0; b < batches; b++) {
+            batchSeeds[b] = root.nextLong();
+        }
+
+        long start = System.nanoTime();
+        List<Callable<Void>> tasks = new ArrayList<>(batches);
+        for (int batch = 0; batch < batches; batch++) {
+            int b = batch;
+            tasks.add(() -> {
+                long batchDecks = decks / batches + (b < decks % batches ? 1 : 0);
+                Random random = new Random(batchSeeds[b]);
+                long[] localInclusion = new long[n];
+                long[] localPairs = new long[n * n];
+                long[] localElixir = new long[MAX_TOTAL_ELIXIR + 1];
+                long[] localWinConditions = new long[DECK_SIZE + 1];
+                Map<String, Long> localWarnings = new LinkedHashMap<>();
+                int[] deckIds = new int[DECK_SIZE];
+                long localFailures = 0;
+
+                for (long d = 0; d < batchDecks; d++) {
+                    Deck deck;
+                    try {
+                        deck = deckService.buildBalancedDeck(random);
+                    } catch (RuntimeException e) {
+                        localFailures++;
+                        continue;
+                    }
+                    List<Card> deckCards = deck.getCards();
+                    int total = 0;
+                    int winConditions = 0;
+                    for (int i = 0; i < deckCards.size(); i++) {
+                        Card card = deckCards.get(i);
+                        int id = ids.get(card);
+                        deckIds[i] = id;
+                        localInclusion[id]++;
+                        total += card.getElixirCost();
+                        if ("WinCondition".equals(card.getRole())) {
+                            winConditions++;
+                        }
+                        for (int j = 0; j < i; j++) {
+                            int a = Math.min(id, deckIds[j]);
+                            int c = Math.max(id, deckIds[j]);
+                            localPairs[a * n + c]++;
+                        }
+                    }
+                    localElixir[Math.min(total, MAX_TOTAL_ELIXIR)]++;
+                    localWinConditions[Math.min(winConditions, DECK_SIZE)]++;
+                    for (String warning : deckService.validateDeck(deckCards)) {
+                        localWarnings.merge(warning, 1L, Long::sum);
+                    }
+                }
+
+                merge(inclusion, localInclusion);
+                merge(elixirTotals, localElixir);
+                merge(winConditionCounts, localWinConditions);
+                for (int i = 0; i < localPairs.length; i++) {
+                    if (localPairs[i] != 0) {
+                        pairs.addAndGet(i, localPairs[i]);
+                    }
+                }
+                localWarnings.forEach((warning, count) -> warnings.computeIfAbsent(warning, w -> new LongAdder()).add(count));
+                failures.add(localFailures);
+                return null;
+            });
+        }
+        awaitAll(tasks);
+        long elapsedNanos = System.nanoTime() - start;
+
+        long generated = decks - failures.sum();
+        logger.info("Generator analytics: {} decks in {} ms", generated, elapsedNanos / 1_000_000);
+        return report(cards, generated, failures.sum(), elapsedNanos, inclusion, pairs, elixirTotals,
+            winConditionCounts, warnings);
+    }
+
+    private Map<String, Object> report(List<Card> cards, long generated, long failures, long elapsedNanos,
+                                       LongAdder[] inclusion, AtomicLongArray pairs, LongAdder[] elixirTotals,
+                                       LongAdder[] winConditionCounts, Map<String, LongAdder> warnings) {
+        int n = cards.size();
+        double total = Math.max(1, generated);
+
+        List<Map<String, Object>> cardFrequency = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", cards.get(i).getName());
+            entry.put("role", cards.get(i).getRole());
+            entry.put("elixirCost", cards.get(i).getElixirCost());
+            entry.put("frequency", inclusion[i].sum() / total);
+            cardFrequency.add(entry);
+        }
+        cardFrequency.sort(Comparator.comparingDouble(e -> -(double) e.get("frequency")));
+
+        // Lift > 1 means the pair shows up together more often than independent picks would
+        List<Map<String, Object>> topPairs = new ArrayList<>();
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                long together = pairs.get(a * n + b);
+                if (together == 0) {
+                    continue;
+                }
+                double pa = inclusion[a].sum() / total;
+                double pb = inclusion[b].sum() / total;
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("cards", List.of(cards.get(a).getName(), cards.get(b).getName()));
+                entry.put("frequency", together / total);
+                entry.put("lift", (together / total) / (pa * pb));
+                topPairs.add(entry);
+            }
+        }
+        topPairs.sort(Comparator.comparingDouble(e -> -(double) e.get("lift")));
+        if (topPairs.size() > TOP_PAIRS) {
+            topPairs = new ArrayList<>(topPairs.subList(0, TOP_PAIRS));
+        }
+
+        Map<String, Double> elixirHistogram = new LinkedHashMap<>();
+        for (int t = 0; t < elixirTotals.length; t++) {
+            long count = elixirTotals[t].sum();
+            if (count > 0) {
+                elixirHistogram.put(String.valueOf((double) t / DECK_SIZE), count / total);
+            }
+        }
+
+        Map<String, Double> winConditionHistogram = new LinkedHashMap<>();
+        for (int w = 0; w < winConditionCounts.length; w++) {
+            long count = winConditionCounts[w].sum();
+            if (count > 0) {
+                winConditionHistogram.put(String.valueOf(w), count / total);
+            }
+        }
+
+        Map<String, Double> warningFrequency = new LinkedHashMap<>();
+        warnings.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(e -> warningFrequency.put(e.getKey(), e.getValue().sum() / total));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("decks", generated);
+        report.put("failures", failures);
+        report.put("elapsedMs", elapsedNanos / 1_000_000);
+        report.put("decksPerSecond", generated * 1e9 / Math.max(1, elapsedNanos));
+        report.put("cardFrequency", cardFrequency);
+        report.put("topPairsByLift", topPairs);
+        report.put("averageElixirHistogram", elixirHistogram);
+        report.put("winConditionsPerDeck", winConditionHistogram);
+        report.put("warningFrequency", warningFrequency);
+        return report;
+    }
+
+    private void awaitAll(List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generator analytics run was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Generator analytics run failed", e.getCause());
+        }
+    }
+
+    private static LongAdder[] adders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static void merge(LongAdder[] target, long[] local) {
+        for (int i = 0; i < local.length; i++) {
+            if (local[i] != 0) {
+                target[i].add(local[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.deckoptimizer;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe memoizing supplier. The value is created on the first {@link #get()} and
+ * reused afterwards, so expensive clients are only built when something actually uses them.
+ */
+public class Lazy<T> implements Supplier<T> {
+    private final Supplier<? extends T> factory;
+    private volatile T value;
+
+    public Lazy(Supplier<? extends T> factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public T get() {
+        T current = value;
+        if (current == null) {
+            synchronized (this) {
+                current = value;
+                if (current == null) {
+                    current = factory.get();
+                    value = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public boolean isInitialized() {
+        return value != null;
+    }
+}
@@ -0,0 +1,501 @@
+package com.deckoptimizer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Key/value store in a memory-mapped file, so its contents survive restarts and can be
+ * shared by several JVMs on the same host.
+ *
+ * File layout:
+ * <pre>
+ *   header  (64 bytes)   magic, version, slot count, stale flag, data capacity,
+ *                        write offset, live bytes, used slots
+ *   index   (slots x 16) open-addressing table of (key hash, record offset), linear probing
+ *   data    (capacity)   append-only log of records: key length, value length, key, value
+ * </pre>
+ * A key hash of zero marks an empty slot and a negative offset marks a removed entry.
+ * Writers append the record first and publish it by writing the slot with release stores,
+ * holding a file lock on the header so writers in other JVMs are serialized. Readers take
+ * no locks, read slots with acquire loads and get values back as read-only slices of the
+ * mapping, without copying.
+ *
+ * Compaction copies live records into a fresh file, renames it over the original and sets
+ * the stale flag in the old file, which makes every process remap on its next access.
+ * Every writer re-checks the stale flag once it holds the lock and retries on the new file.
+ * Compaction keeps records in log order, so {@link #evictOldest} can make room in a full
+ * store by dropping the front of the log.
+ */
+public class MappedCacheStore implements Closeable {
+    private static final int MAGIC = 0x44434b31;
+    private static final int VERSION = 1;
+
+    private static final int MAGIC_AT = 0;
+    private static final int VERSION_AT = 4;
+    private static final int SLOTS_AT = 8;
+    private static final int STALE_AT = 12;
+    private static final int CAPACITY_AT = 16;
+    private static final int WRITE_AT = 24;
+    private static final int LIVE_AT = 32;
+    private static final int USED_AT = 40;
+    static final int HEADER_SIZE = 64;
+
+    private static final int SLOT_SIZE = 16;
+    private static final int RECORD_HEADER = 8;
+    private static final double MAX_LOAD = 0.75;
+
+    // Mapped buffers are big-endian unless told otherwise; slots are 8-byte aligned
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path path;
+    private final int slotCount;
+    private final long dataCapacity;
+    private final int dataStart;
+    private final Object writeLock = new Object();
+    private volatile Mapping mapping;
+
+    /**
+     * Open the store at {@code path}, creating or reinitializing the file if it does not
+     * match the requested geometry.
+     *
+     * @param slotCount index slots, rounded up to a power of two
+     */
+    public MappedCacheStore(Path path, int slotCount, long dataCapacity) throws IOException {
+        this.path = path;
+        this.slotCount = Integer.highestOneBit(Math.max(16, slotCount - 1)) << 1;
+        this.dataCapacity = dataCapacity;
+        this.dataStart = HEADER_SIZE + this.slotCount * SLOT_SIZE;
+        if ((long) dataStart + dataCapacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cache file must be smaller than 2 GB");
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.mapping = openMapping(path);
+    }
+
+    public String get(String key) {
+        ByteBuffer value = getBuffer(key);
+        return value == null ? null : StandardCharsets.UTF_8.decode(value).toString();
+    }
+
+    /**
+     * Zero-copy lookup.
+     *
+     * @return a read-only view of the value inside the mapped file, or null if absent
+     */
+    public ByteBuffer getBuffer(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(keyBytes);
+        MappedByteBuffer buffer = current().buffer;
+        int mask = slotCount - 1;
+        int slot = (int) hash & mask;
+        for (int probes = 0; probes < slotCount; probes++) {
+            int at = HEADER_SIZE + slot * SLOT_SIZE;
+            long slotHash = (long) LONGS.getAcquire(buffer, at);
+            if (slotHash == 0) {
+                return null;
+            }
+            if (slotHash == hash) {
+                // Acquire pairs with the writer's release, so the record is fully visible
+                long offset = (long) LONGS.getAcquire(buffer, at + 8);
+                if (offset >= 0 && keyMatches(buffer, offset, keyBytes)) {
+                    int record = dataStart + (int) offset;
+                    int valueStart = record + RECORD_HEADER + keyBytes.length;
+                    return buffer.slice(valueStart, buffer.getInt(record + 4)).asReadOnlyBuffer();
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean put(String key, String value) {
+        return put(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Append a value for the key, replacing any previous one.
+     *
+     * @return false if the index or the data log is full (until the next compaction)
+     */
+    public boolean put(String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(keyBytes);
+        int recordLength = RECORD_HEADER + keyBytes.length + value.length;
+
+        return locked("write to", m -> {
+            MappedByteBuffer buffer = m.buffer;
+            long write = buffer.getLong(WRITE_AT);
+            if (write + recordLength > dataCapacity) {
+                return false;
+            }
+
+            int at = findSlot(buffer, hash, keyBytes);
+            if (at < 0) {
+                return false;
+            }
+            long previous = buffer.getLong(at + 8);
+            boolean newSlot = buffer.getLong(at) == 0;
+            if (newSlot && buffer.getInt(USED_AT) + 1 > slotCount * MAX_LOAD) {
+                return false;
+            }
+
+            int record = dataStart + (int) write;
+            buffer.putInt(record, keyBytes.length);
+            buffer.putInt(record + 4, value.length);
+            buffer.put(record + RECORD_HEADER, keyBytes);
+            buffer.put(record + RECORD_HEADER + keyBytes.length, value);
+            buffer.putLong(WRITE_AT, write + recordLength);
+
+            long live = buffer.getLong(LIVE_AT) + recordLength;
+            if (!newSlot && previous >= 0) {
+                live -= recordLength(buffer, previous);
+            }
+            buffer.putLong(LIVE_AT, live);
+
+            // Publish with release stores: record before offset, offset before hash
+            LONGS.setRelease(buffer, at + 8, write);
+            if (newSlot) {
+                LONGS.setRelease(buffer, at, hash);
+                buffer.putInt(USED_AT, buffer.getInt(USED_AT) + 1);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Remove every entry whose key starts with {@code prefix}.
+     *
+     * @return the number of entries removed
+     */
+    public int removeByPrefix(String prefix) {
+        byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+        return locked("write to", m -> {
+            MappedByteBuffer buffer = m.buffer;
+            int removed = 0;
+            long live = buffer.getLong(LIVE_AT);
+            for (int slot = 0; slot < slotCount; slot++) {
+                int at = HEADER_SIZE + slot * SLOT_SIZE;
+                long offset = buffer.getLong(at + 8);
+                if (buffer.getLong(at) != 0 && offset >= 0 && keyStartsWith(buffer, offset, prefixBytes)) {
+                    live -= recordLength(buffer, offset);
+                    LONGS.setRelease(buffer, at + 8, -offset - 1);
+                    removed++;
+                }
+            }
+            buffer.putLong(LIVE_AT, live);
+            return removed;
+        });
+    }
+
+    /**
+     * Compact when at least half of the data log or index is taken up by dead entries.
+     *
+     * @return true if the store was compacted
+     */
+    public boolean compactIfNeeded() {
+        MappedByteBuffer buffer = current().buffer;
+        long write = buffer.getLong(WRITE_AT);
+        long dead = write - buffer.getLong(LIVE_AT);
+        boolean logMostlyDead = write > dataCapacity / 4 && dead > write / 2;
+        boolean indexNearlyFull = buffer.getInt(USED_AT) > slotCount * MAX_LOAD * 0.9;
+        if (logMostlyDead || indexNearlyFull) {
+            compact();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Rewrite the live entries into a fresh file and swap it in.
+     */
+    public void compact() {
+        synchronized (writeLock) {
+            Mapping old = locked("compact", m -> {
+                // Unique temp name, so concurrent compactions never share a file
+                Path dir = path.toAbsolutePath().getParent();
+                Path compacted = Files.createTempFile(dir, path.getFileName() + ".", ".compact");
+                Mapping fresh;
+                try {
+                    fresh = openMapping(compacted);
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(compacted);
+                    throw e;
+                }
+                MappedByteBuffer from = m.buffer;
+                MappedByteBuffer to = fresh.buffer;
+                int mask = slotCount - 1;
+                long write = 0;
+                int used = 0;
+                // Copy in log order, so the oldest entries stay at the front for evictOldest
+                for (int at : liveSlotsByOffset(from)) {
+                    long hash = from.getLong(at);
+                    long offset = from.getLong(at + 8);
+                    int length = recordLength(from, offset);
+                    to.put(dataStart + (int) write, from, dataStart + (int) offset, length);
+                    int target = (int) hash & mask;
+                    while (to.getLong(HEADER_SIZE + target * SLOT_SIZE) != 0) {
+                        target = (target + 1) & mask;
+                    }
+                    to.putLong(HEADER_SIZE + target * SLOT_SIZE + 8, write);
+                    to.putLong(HEADER_SIZE + target * SLOT_SIZE, hash);
+                    write += length;
+                    used++;
+                }
+                to.putLong(WRITE_AT, write);
+                to.putLong(LIVE_AT, write);
+                to.putInt(USED_AT, used);
+                to.force();
+
+                try {
+                    Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    fresh.channel.close();
+                    Files.deleteIfExists(compacted);
+                    throw e;
+                }
+                from.putInt(STALE_AT, 1);
+                mapping = fresh;
+                return m;
+            });
+            try {
+                old.channel.close();
+            } catch (IOException ignored) {
+                // The mapping stays valid after the channel is closed
+            }
+        }
+    }
+
+    /**
+     * Remove the live entries in the oldest {@code fraction} of the data log, so a full store
+     * can take new writes after the next compaction.
+     *
+     * @return the number of entries removed
+     */
+    public int evictOldest(double fraction) {
+        return locked("write to", m -> {
+            MappedByteBuffer buffer = m.buffer;
+            long cutoff = (long) (buffer.getLong(WRITE_AT) * fraction);
+            long live = buffer.getLong(LIVE_AT);
+            int removed = 0;
+            for (int at : liveSlotsByOffset(buffer)) {
+                long offset = buffer.getLong(at + 8);
+                if (offset >= cutoff) {
+                    break;
+                }
+                live -= recordLength(buffer, offset);
+                LONGS.setRelease(buffer, at + 8, -offset - 1);
+                removed++;
+            }
+            buffer.putLong(LIVE_AT, live);
+            return removed;
+        });
+    }
+
+    // Positions of the live slots, ordered by where their records sit in the log (oldest first)
+    private int[] liveSlotsByOffset(MappedByteBuffer buffer) {
+        List<long[]> live = new ArrayList<>();
+        for (int slot = 0; slot < slotCount; slot++) {
+            int at = HEADER_SIZE + slot * SLOT_SIZE;
+            long offset = buffer.getLong(at + 8);
+            if (buffer.getLong(at) != 0 && offset >= 0) {
+                live.add(new long[] {offset, at});
+            }
+        }
+        live.sort(Comparator.comparingLong(entry -> entry[0]));
+        int[] slots = new int[live.size()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = (int) live.get(i)[1];
+        }
+        return slots;
+    }
+
+    public int size() {
+        MappedByteBuffer buffer = current().buffer;
+        int live = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            int at = HEADER_SIZE + slot * SLOT_SIZE;
+            if (buffer.getLong(at) != 0 && buffer.getLong(at + 8) >= 0) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    public long getWriteOffset() {
+        return current().buffer.getLong(WRITE_AT);
+    }
+
+    public long getLiveBytes() {
+        return current().buffer.getLong(LIVE_AT);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            mapping.buffer.force();
+            mapping.channel.close();
+        }
+    }
+
+    /**
+     * Run {@code action} on the current mapping while holding the header lock. If the file
+     * was compacted while we waited for the lock, the action is retried on the new file, so
+     * nothing is ever written to a replaced file.
+     */
+    private <T> T locked(String operation, LockedAction<T> action) {
+        synchronized (writeLock) {
+            while (true) {
+                Mapping m = current();
+                try {
+                    FileLock lock = m.channel.lock(0, HEADER_SIZE, false);
+                    try {
+                        if (m.buffer.getInt(STALE_AT) != 0) {
+                            continue;
+                        }
+                        return action.apply(m);
+                    } finally {
+                        lock.release();
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not " + operation + " cache file " + path, e);
+                }
+            }
+        }
+    }
+
+    // Remap if another process (or this one) compacted the file since it was mapped
+    private Mapping current() {
+        Mapping m = mapping;
+        if (m.buffer.getInt(STALE_AT) != 0) {
+            synchronized (writeLock) {
+                if (mapping == m) {
+                    try {
+                        m.channel.close();
+                        mapping = openMapping(path);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Could not remap cache file " + path, e);
+                    }
+                }
+                m = mapping;
+            }
+        }
+        return m;
+    }
+
+    private Mapping openMapping(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            FileLock lock = channel.lock(0, HEADER_SIZE, false);
+            try {
+                return initMapping(channel);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Map the file and reset the header and index if it does not match this store; caller holds the header lock
+    private Mapping initMapping(FileChannel channel) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, dataStart + dataCapacity);
+        boolean valid = buffer.getInt(MAGIC_AT) == MAGIC
+            && buffer.getInt(VERSION_AT) == VERSION
+            && buffer.getInt(SLOTS_AT) == slotCount
+            && buffer.getLong(CAPACITY_AT) == dataCapacity
+            && buffer.getInt(STALE_AT) == 0;
+        if (!valid) {
+            for (int at = 0; at < dataStart; at += 8) {
+                buffer.putLong(at, 0L);
+            }
+            buffer.putInt(VERSION_AT, VERSION);
+            buffer.putInt(SLOTS_AT, slotCount);
+            buffer.putLong(CAPACITY_AT, dataCapacity);
+            buffer.putInt(MAGIC_AT, MAGIC);
+        }
+        return new Mapping(channel, buffer);
+    }
+
+    // Slot for the key: its existing slot if present (even if removed), otherwise the first empty one
+    private int findSlot(MappedByteBuffer buffer, long hash, byte[] keyBytes) {
+        int mask = slotCount - 1;
+        int slot = (int) hash & mask;
+        for (int probes = 0; probes < slotCount; probes++) {
+            int at = HEADER_SIZE + slot * SLOT_SIZE;
+            long slotHash = buffer.getLong(at);
+            if (slotHash == 0) {
+                return at;
+            }
+            if (slotHash == hash) {
+                long offset = buffer.getLong(at + 8);
+                if (keyMatches(buffer, offset >= 0 ? offset : -offset - 1, keyBytes)) {
+                    return at;
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int recordLength(MappedByteBuffer buffer, long offset) {
+        int record = dataStart + (int) offset;
+        return RECORD_HEADER + buffer.getInt(record) + buffer.getInt(record + 4);
+    }
+
+    private boolean keyMatches(MappedByteBuffer buffer, long offset, byte[] keyBytes) {
+        int record = dataStart + (int) offset;
+        return buffer.getInt(record) == keyBytes.length && keyStartsWith(buffer, offset, keyBytes);
+    }
+
+    private boolean keyStartsWith(MappedByteBuffer buffer, long offset, byte[] prefix) {
+        int record = dataStart + (int) offset;
+        if (buffer.getInt(record) < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(record + RECORD_HEADER + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit FNV-1a with a final mix; zero is reserved for empty slots
+    static long hash(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    private record Mapping(FileChannel channel, MappedByteBuffer buffer) {
+    }
+
+    private interface LockedAction<T> {
+        T apply(Mapping mapping) throws IOException;
+    }
+}
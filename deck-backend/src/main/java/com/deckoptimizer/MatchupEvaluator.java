@@ -0,0 +1,225 @@
+package com.deckoptimizer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Scores decks head to head from a role counter matrix plus their simulated cycle metrics,
+ * and runs round-robin tournaments over a set of decks.
+ *
+ * A matchup score lies in (-1, 1); positive values favour the first deck. Scores are
+ * antisymmetric, so score(A, B) == -score(B, A), and only one order of each pair is
+ * computed and cached. Profiles and matchups are cached by card names together with the
+ * client-supplied costs and roles they were computed from.
+ */
+@Service
+public class MatchupEvaluator {
+    private static final Logger logger = LoggerFactory.getLogger(MatchupEvaluator.class);
+
+    /** Scores within this margin of zero count as a draw in tournaments. */
+    static final double DRAW_MARGIN = 0.05;
+
+    static final String[] ROLES = {
+        "WinCondition", "Tank", "Support", "Defense", "BigSpell", "SmallSpell", "Cycle", "Swarm", "Tank Killer"
+    };
+    private static final int OTHER = ROLES.length;
+
+    // COUNTERS[a][b]: how well a card of role a answers a card of role b (0..1).
+    // Rows/columns follow ROLES, with a final row/column for unknown roles.
+    private static final double[][] COUNTERS = {
+        //  WinC  Tank  Supp  Def   BigSp SmlSp Cycle Swarm TKill Other
+        {   0.0,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0 }, // WinCondition
+        {   0.2,  0.0,  0.1,  0.1,  0.0,  0.0,  0.2,  0.3,  0.0,  0.0 }, // Tank
+        {   0.3,  0.1,  0.2,  0.0,  0.0,  0.0,  0.2,  0.3,  0.2,  0.1 }, // Support
+        {   0.6,  0.3,  0.1,  0.0,  0.0,  0.0,  0.1,  0.1,  0.2,  0.1 }, // Defense
+        {   0.1,  0.0,  0.5,  0.3,  0.0,  0.0,  0.2,  0.4,  0.3,  0.1 }, // BigSpell
+        {   0.1,  0.0,  0.2,  0.0,  0.0,  0.0,  0.5,  0.8,  0.1,  0.1 }, // SmallSpell
+        {   0.1,  0.0,  0.1,  0.0,  0.0,  0.0,  0.1,  0.2,  0.0,  0.0 }, // Cycle
+        {   0.3,  0.5,  0.1,  0.0,  0.0,  0.0,  0.1,  0.1,  0.4,  0.1 }, // Swarm
+        {   0.4,  0.8,  0.2,  0.0,  0.0,  0.0,  0.0,  0.0,  0.1,  0.1 }, // Tank Killer
+        {   0.1,  0.1,  0.1,  0.0,  0.0,  0.0,  0.1,  0.1,  0.1,  0.0 }  // Other
+    };
+
+    private static final double COUNTER_WEIGHT = 1.0;
+    private static final double CYCLE_WEIGHT = 0.3;
+    private static final double LEAK_WEIGHT = 0.5;
+
+    private final CycleSimulator cycleSimulator;
+    private final int simulationRuns;
+    private final BoundedCache<String, DeckProfile> profiles;
+    private final BoundedCache<MatchupKey, Double> matchups;
+    private final int matchupCacheSize;
+    private final int maxTournamentDecks;
+
+    public MatchupEvaluator(CycleSimulator cycleSimulator,
+                            @Value("${deck.matchup.simulation-runs:200}") int simulationRuns,
+                            @Value("${deck.matchup.cache-size:200000}") int cacheSize,
+                            @Value("${deck.tournament.max-decks:256}") int maxTournamentDecks) {
+        this.cycleSimulator = cycleSimulator;
+        this.simulationRuns = simulationRuns;
+        this.profiles = new BoundedCache<>(Math.max(1, cacheSize / 10));
+        this.matchups = new BoundedCache<>(cacheSize);
+        this.matchupCacheSize = cacheSize;
+        this.maxTournamentDecks = maxTournamentDecks;
+    }
+
+    public int getMaxTournamentDecks() {
+        return maxTournamentDecks;
+    }
+
+    /**
+     * Score deck A against deck B, memoized by the unordered pair of decks.
+     */
+    public double evaluate(List<Card> deckA, List<Card> deckB) {
+        return score(profile(deckA), profile(deckB));
+    }
+
+    /**
+     * Play every deck against every other deck and rank them by average matchup score.
+     */
+    public List<TournamentStanding> runTournament(List<List<Card>> decks) {
+        long start = System.nanoTime();
+        int n = decks.size();
+
+        DeckProfile[] entrants = decks.parallelStream()
+            .map(this::profile)
+            .toArray(DeckProfile[]::new);
+
+        // Score each pair once: scores[i][j - i - 1] is deck i against deck j > i. The shared
+        // cache only helps if the whole field fits, otherwise it would just churn
+        boolean useCache = (long) n * (n - 1) / 2 <= matchupCacheSize;
+        double[][] scores = new double[n][];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            double[] row = new double[n - i - 1];
+            for (int j = i + 1; j < n; j++) {
+                row[j - i - 1] = useCache ? score(entrants[i], entrants[j]) : computeScore(entrants[i], entrants[j]);
+            }
+            scores[i] = row;
+        });
+
+        // Each row only writes its own slot, so rows can run in parallel without sharing counters
+        int[] wins = new int[n];
+        int[] draws = new int[n];
+        int[] losses = new int[n];
+        double[] totals = new double[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            for (int j = 0; j < n; j++) {
+                if (i == j) {
+                    continue;
+                }
+                double s = j > i ? scores[i][j - i - 1] : -scores[j][i - j - 1];
+                totals[i] += s;
+                if (s > DRAW_MARGIN) {
+                    wins[i]++;
+                } else if (s < -DRAW_MARGIN) {
+                    losses[i]++;
+                } else {
+                    draws[i]++;
+                }
+            }
+        });
+
+        List<TournamentStanding> standings = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            List<String> names = decks.get(i).stream().map(Card::getName).collect(Collectors.toList());
+            double average = n > 1 ? totals[i] / (n - 1) : 0.0;
+            standings.add(new TournamentStanding(i, names, wins[i], draws[i], losses[i], average));
+        }
+        standings.sort(Comparator.comparingDouble(TournamentStanding::getAverageScore).reversed());
+        for (int i = 0; i < standings.size(); i++) {
+            standings.get(i).setRank(i + 1);
+        }
+
+        logger.info("Evaluated {} matchups between {} decks in {} ms",
+            (long) n * (n - 1) / 2, n, (System.nanoTime() - start) / 1_000_000);
+        return standings;
+    }
+
+    private double score(DeckProfile a, DeckProfile b) {
+        if (a.key.compareTo(b.key) > 0) {
+            return -score(b, a);
+        }
+        return matchups.computeIfAbsent(new MatchupKey(a.key, b.key), k -> computeScore(a, b));
+    }
+
+    static double computeScore(DeckProfile a, DeckProfile b) {
+        double aAnswers = 0.0;
+        double bAnswers = 0.0;
+        for (int ra : a.roles) {
+            for (int rb : b.roles) {
+                aAnswers += COUNTERS[ra][rb];
+                bAnswers += COUNTERS[rb][ra];
+            }
+        }
+        int pairs = Math.max(1, a.roles.length * b.roles.length);
+        double counter = (aAnswers - bAnswers) / pairs;
+
+        // A win condition that comes back sooner than the opponent's means more pressure
+        double cycle = 0.0;
+        double slower = Math.max(a.winConditionReturnSeconds, b.winConditionReturnSeconds);
+        if (slower > 0) {
+            cycle = (b.winConditionReturnSeconds - a.winConditionReturnSeconds) / slower;
+        }
+        double leak = b.elixirLeakRatio - a.elixirLeakRatio;
+
+        return Math.tanh(COUNTER_WEIGHT * counter * 4 + CYCLE_WEIGHT * cycle + LEAK_WEIGHT * leak);
+    }
+
+    private DeckProfile profile(List<Card> deck) {
+        String key = profileKey(deck);
+        DeckProfile profile = profiles.get(key);
+        if (profile == null) {
+            int[] roles = deck.stream().mapToInt(c -> roleIndex(c.getRole())).toArray();
+            profile = new DeckProfile(key, roles, cycleSimulator.simulate(deck, simulationRuns));
+            profiles.put(key, profile);
+        }
+        return profile;
+    }
+
+    /**
+     * Card names plus the cost and role each profile is computed from, in a fixed order, so
+     * two clients sending the same cards with different metadata do not share a profile.
+     */
+    static String profileKey(List<Card> deck) {
+        return deck.stream()
+            .map(c -> (c.getName() == null ? "" : c.getName().trim().toLowerCase(Locale.ROOT))
+                + ":" + c.getElixirCost() + ":" + c.getRole())
+            .sorted()
+            .collect(Collectors.joining(","));
+    }
+
+    static int roleIndex(String role) {
+        for (int i = 0; i < ROLES.length; i++) {
+            if (ROLES[i].equals(role)) {
+                return i;
+            }
+        }
+        return OTHER;
+    }
+
+    static final class DeckProfile {
+        final String key;
+        final int[] roles;
+        final double winConditionReturnSeconds;
+        final double elixirLeakRatio;
+
+        DeckProfile(String key, int[] roles, CycleMetrics metrics) {
+            this.key = key;
+            this.roles = roles;
+            this.winConditionReturnSeconds = metrics.getWinConditionReturnSeconds();
+            this.elixirLeakRatio = metrics.getElixirLeakRatio();
+        }
+    }
+
+    private record MatchupKey(String first, String second) {
+    }
+}
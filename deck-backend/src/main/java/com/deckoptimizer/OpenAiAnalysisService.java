@@ -3,11 +3,17 @@ package com.deckoptimizer;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
 import com.theokanning.openai.completion.chat.ChatMessage;
 import com.theokanning.openai.completion.chat.ChatMessageRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.theokanning.openai.client.OpenAiApi;
 import com.theokanning.openai.service.OpenAiService;
+import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import retrofit2.Retrofit;
+import retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
+import retrofit2.converter.jackson.JacksonConverterFactory;
 
 import java.time.Duration;
 import java.util.List;
@@ -16,11 +22,34 @@ import java.util.ArrayList;
 @Service
 public class OpenAiAnalysisService {
     private static final Logger logger = LoggerFactory.getLogger(OpenAiAnalysisService.class);
+
+    static final String ANALYSIS_UNAVAILABLE = "Sorry, I couldn't analyze your deck at the moment. Please try again later.";
     
-    private final OpenAiService openAiService;
+    private final Lazy<OpenAiService> openAiService;
+    private final PromptBuilder promptBuilder;
     
-    public OpenAiAnalysisService(@Value("${openai.api.key}") String apiKey) {
-        this.openAiService = new OpenAiService(apiKey, Duration.ofSeconds(30));
+    public OpenAiAnalysisService(@Value("${openai.api.key}") String apiKey,
+                                 @Value("${openai.api.base-url:https://api.openai.com/}") String baseUrl,
+                                 PromptBuilder promptBuilder) {
+        // Retrofit and OkHttp are only loaded once the first analysis is requested
+        this.openAiService = new Lazy<>(() -> new OpenAiService(createApi(apiKey, baseUrl)));
+        this.promptBuilder = promptBuilder;
+    }
+
+    /**
+     * Same client the library builds by default, but pointed at {@code baseUrl} so a local
+     * stub can stand in for OpenAI (see the load test module).
+     */
+    private static OpenAiApi createApi(String apiKey, String baseUrl) {
+        ObjectMapper mapper = OpenAiService.defaultObjectMapper();
+        OkHttpClient client = OpenAiService.defaultClient(apiKey, Duration.ofSeconds(30));
+        Retrofit retrofit = new Retrofit.Builder()
+            .baseUrl(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/")
+            .client(client)
+            .addConverterFactory(JacksonConverterFactory.create(mapper))
+            .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
+            .build();
+        return retrofit.create(OpenAiApi.class);
     }
     
     /**
@@ -28,8 +57,8 @@ public class OpenAiAnalysisService {
      */
     public String analyzeDeck(List<Card> deck, String userQuery, String royaleApiData) {
         try {
-            String systemPrompt = createSystemPrompt();
-            String userPrompt = createUserPrompt(deck, userQuery, royaleApiData);
+            String systemPrompt = promptBuilder.getSystemPrompt();
+            String userPrompt = promptBuilder.buildUserPrompt(deck, userQuery, royaleApiData);
             
             List<ChatMessage> messages = new ArrayList<>();
             messages.add(new ChatMessage(ChatMessageRole.SYSTEM.value(), systemPrompt));
@@ -42,7 +71,7 @@ public class OpenAiAnalysisService {
                 .temperature(0.7)
                 .build();
             
-            String response = openAiService.createChatCompletion(request)
+            String response = openAiService.get().createChatCompletion(request)
                 .getChoices()
                 .get(0)
                 .getMessage()
@@ -53,59 +82,7 @@ public class OpenAiAnalysisService {
             
         } catch (Exception e) {
             logger.error("Error generating deck analysis: {}", e.getMessage());
-            return "Sorry, I couldn't analyze your deck at the moment. Please try again later.";
-        }
-    }
-    
-    private String createSystemPrompt() {
-        return """
-            You are an expert Clash Royale strategist and deck analyst. Your role is to provide detailed, 
-            actionable feedback on player decks based on:
-            
-            1. Current meta trends from RoyaleAPI data
-            2. Card synergies and interactions
-            3. Elixir efficiency and cycle potential
-            4. Win condition viability
-            5. Defensive capabilities
-            6. Counter-play strategies
-            
-            Provide concise but comprehensive analysis. Focus on:
-            - Strengths and weaknesses of the deck
-            - Specific card interactions and synergies
-            - Meta relevance and matchup considerations
-            - Concrete improvement suggestions
-            - Strategic gameplay tips
-            
-            Keep responses under 600 words and use bullet points for clarity.
-            """;
-    }
-    
-    private String createUserPrompt(List<Card> deck, String userQuery, String royaleApiData) {
-        StringBuilder prompt = new StringBuilder();
-        
-        prompt.append("**User's Deck:**\n");
-        for (Card card : deck) {
-            prompt.append("- ").append(card.getName())
-                .append(" (").append(card.getElixirCost()).append(" elixir, ")
-                .append(card.getRole()).append(", ")
-                .append(card.getType()).append(")\n");
-        }
-        
-        double avgElixir = deck.stream()
-            .mapToInt(Card::getElixirCost)
-            .average()
-            .orElse(0.0);
-        prompt.append("\n**Average Elixir Cost:** ").append(String.format("%.2f", avgElixir)).append("\n\n");
-        
-        prompt.append("**User's Question/Request:** ").append(userQuery).append("\n\n");
-        
-        if (royaleApiData != null && !royaleApiData.isEmpty()) {
-            prompt.append("**Current Meta Data from RoyaleAPI:**\n")
-                .append(royaleApiData).append("\n\n");
+            return ANALYSIS_UNAVAILABLE;
         }
-        
-        prompt.append("Please analyze this deck and provide strategic feedback based on the user's specific question.");
-        
-        return prompt.toString();
     }
 }
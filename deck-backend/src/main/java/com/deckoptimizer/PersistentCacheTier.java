@@ -0,0 +1,137 @@
+package com.deckoptimizer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Second cache tier backed by a {@link MappedCacheStore}, so warm state survives redeploys.
+ * When disabled (the default), or if the file cannot be opened, every lookup misses and
+ * writes are ignored. The file is shared by every process that opens the same path, so give
+ * each instance its own path unless sharing is intended.
+ */
+@Component
+public class PersistentCacheTier {
+    private static final Logger logger = LoggerFactory.getLogger(PersistentCacheTier.class);
+
+    // Share of the log dropped when the store is full: enough that eviction stays rare
+    private static final double EVICT_FRACTION = 0.25;
+
+    private final MappedCacheStore store;
+    private final long capacityBytes;
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder skippedWrites = new LongAdder();
+    private final Object evictionLock = new Object();
+
+    public PersistentCacheTier(@Value("${cache.mmap.enabled:false}") boolean enabled,
+                               @Value("${cache.mmap.path:data/cache.dat}") String path,
+                               @Value("${cache.mmap.slots:65536}") int slots,
+                               @Value("${cache.mmap.capacity-mb:64}") int capacityMb) {
+        this.store = enabled ? open(Path.of(path), slots, capacityMb) : null;
+        this.capacityBytes = capacityMb * 1024L * 1024L;
+    }
+
+    private static MappedCacheStore open(Path path, int slots, int capacityMb) {
+        long start = System.nanoTime();
+        try {
+            MappedCacheStore store = new MappedCacheStore(path, slots, capacityMb * 1024L * 1024L);
+            logger.info("Opened persistent cache {} with {} entries in {} ms",
+                path, store.size(), (System.nanoTime() - start) / 1_000_000);
+            return store;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Persistent cache disabled, could not open {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    public String get(String key) {
+        return store == null ? null : store.get(key);
+    }
+
+    public ByteBuffer getBuffer(String key) {
+        return store == null ? null : store.getBuffer(key);
+    }
+
+    public void put(String key, String value) {
+        put(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Store a value. When the store is full, the oldest quarter of the log is evicted and
+     * compacted away before retrying once.
+     */
+    public void put(String key, byte[] value) {
+        if (store == null || store.put(key, value)) {
+            return;
+        }
+        if (value.length > capacityBytes * EVICT_FRACTION) {
+            skippedWrites.increment();
+            logger.warn("Persistent cache skipped {}: {} bytes is too large to store", key, value.length);
+            return;
+        }
+        synchronized (evictionLock) {
+            // Another writer may have made room while we waited
+            if (store.put(key, value)) {
+                return;
+            }
+            int removed = store.evictOldest(EVICT_FRACTION);
+            store.compact();
+            evicted.add(removed);
+            if (store.put(key, value)) {
+                logger.info("Persistent cache full, evicted {} oldest entries", removed);
+            } else {
+                skippedWrites.increment();
+                logger.warn("Persistent cache still full after evicting {} entries, skipped {}", removed, key);
+            }
+        }
+    }
+
+    public void removeByPrefix(String prefix) {
+        if (store != null) {
+            store.removeByPrefix(prefix);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", store != null);
+        if (store != null) {
+            stats.put("entries", store.size());
+            stats.put("usedBytes", store.getWriteOffset());
+            stats.put("liveBytes", store.getLiveBytes());
+            stats.put("capacityBytes", capacityBytes);
+        }
+        stats.put("evicted", evicted.sum());
+        stats.put("skippedWrites", skippedWrites.sum());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${cache.mmap.compaction-interval-ms:60000}")
+    public void compact() {
+        if (store != null && store.compactIfNeeded()) {
+            logger.info("Compacted persistent cache, {} live bytes", store.getLiveBytes());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.deckoptimizer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Builds the prompts sent to OpenAI for deck analysis.
+ *
+ * Card lines for the catalog are formatted once at startup and looked up by name; cards whose
+ * client-supplied cost, role or type differ from the catalog are formatted on the fly. The meta
+ * data is split into sections that are ranked by how relevant they are to the deck. Only relevant
+ * sections are included, highest ranked first, until the user prompt reaches its token budget.
+ */
+@Component
+public class PromptBuilder {
+    private static final Logger logger = LoggerFactory.getLogger(PromptBuilder.class);
+
+    static final String SYSTEM_PROMPT = """
+        You are an expert Clash Royale deck analyst. Judge the deck on meta fit, card synergies, \
+        elixir efficiency and cycle, win condition viability, defense and counter-play.
+        Cover strengths, weaknesses, key interactions, matchups, concrete card swaps and gameplay tips.
+        Use bullet points and stay under 600 words.""";
+
+    private static final int CARD_NAME_WEIGHT = 3;
+    private static final int KEYWORD_WEIGHT = 1;
+
+    private static final String META_HEADING = "**Current Meta Data from RoyaleAPI:**\n";
+    private static final String CLOSING = "Please analyze this deck and provide strategic feedback based on the user's specific question.";
+
+    private final int maxPromptTokens;
+    private final Map<String, CatalogDescriptor> descriptors = new HashMap<>();
+
+    public PromptBuilder(CardLoader cardLoader, @Value("${openai.prompt.max-tokens:700}") int maxPromptTokens) {
+        this.maxPromptTokens = maxPromptTokens;
+        for (Card card : cardLoader.getCards()) {
+            descriptors.putIfAbsent(card.getName(), new CatalogDescriptor(card, formatDescriptor(card)));
+        }
+    }
+
+    public String getSystemPrompt() {
+        return SYSTEM_PROMPT;
+    }
+
+    public String buildUserPrompt(List<Card> deck, String userQuery, String metaData) {
+        StringBuilder prompt = new StringBuilder(512);
+
+        prompt.append("**User's Deck:**\n");
+        int totalElixir = 0;
+        for (Card card : deck) {
+            prompt.append(descriptor(card));
+            totalElixir += card.getElixirCost();
+        }
+
+        double avgElixir = deck.isEmpty() ? 0.0 : (double) totalElixir / deck.size();
+        prompt.append("\n**Average Elixir Cost:** ").append(String.format(Locale.ROOT, "%.2f", avgElixir)).append("\n\n");
+        int deckTokens = estimateTokens(prompt);
+
+        String question = "**User's Question/Request:** " + userQuery + "\n\n";
+        prompt.append(question);
+
+        // Meta only gets what the deck, the question and the fixed text leave of the budget
+        int metaBudget = maxPromptTokens - deckTokens - estimateTokens(question)
+            - estimateTokens(META_HEADING) - estimateTokens(CLOSING);
+        int metaSections = 0;
+        int metaTokens = 0;
+        if (metaData != null && !metaData.isEmpty() && metaBudget > 0) {
+            List<String> selected = selectMeta(deck, avgElixir, metaData, metaBudget);
+            if (!selected.isEmpty()) {
+                prompt.append(META_HEADING);
+                for (String section : selected) {
+                    prompt.append(section).append("\n\n");
+                    metaTokens += estimateTokens(section);
+                }
+                metaSections = selected.size();
+            }
+        }
+
+        prompt.append(CLOSING);
+
+        String userPrompt = prompt.toString();
+        logger.info("Prompt tokens: system={}, user={} (meta={} in {} sections, budget={})",
+            estimateTokens(SYSTEM_PROMPT), estimateTokens(userPrompt), metaTokens, metaSections, maxPromptTokens);
+        return userPrompt;
+    }
+
+    /**
+     * Rough token estimate for English text (about four characters per token).
+     */
+    static int estimateTokens(CharSequence text) {
+        return estimateTokens(text.length());
+    }
+
+    private static int estimateTokens(int chars) {
+        return (chars + 3) / 4;
+    }
+
+    private String descriptor(Card card) {
+        CatalogDescriptor known = card.getName() == null ? null : descriptors.get(card.getName());
+        if (known != null && known.matches(card)) {
+            return known.text();
+        }
+        return formatDescriptor(card);
+    }
+
+    private static String formatDescriptor(Card card) {
+        return "- " + card.getName() + " (" + card.getElixirCost() + " elixir, " + card.getRole() + ", " + card.getType() + ")\n";
+    }
+
+    /**
+     * Pick the meta sections relevant to the deck, best first, within the token budget.
+     * A section that does not fit is trimmed to its heading plus its relevant lines.
+     */
+    List<String> selectMeta(List<Card> deck, double avgElixir, String metaData, int budget) {
+        Map<String, Integer> terms = relevantTerms(deck, avgElixir);
+
+        List<ScoredSection> sections = new ArrayList<>();
+        int order = 0;
+        for (String raw : metaData.split("\\n\\s*\\n")) {
+            String section = raw.strip();
+            if (section.isEmpty()) {
+                continue;
+            }
+            int score = relevance(section, terms);
+            if (score > 0) {
+                sections.add(new ScoredSection(section, score, order++));
+            }
+        }
+        sections.sort(Comparator.comparingInt(ScoredSection::score).reversed()
+            .thenComparingInt(ScoredSection::order));
+
+        List<String> selected = new ArrayList<>();
+        int remaining = budget;
+        for (ScoredSection candidate : sections) {
+            // Each section is followed by a blank line, which costs one more token
+            String section = candidate.text();
+            if (estimateTokens(section) + 1 > remaining) {
+                section = trimSection(section, terms, remaining - 1);
+            }
+            if (section != null) {
+                selected.add(section);
+                remaining -= estimateTokens(section) + 1;
+            }
+        }
+        return selected;
+    }
+
+    private static String trimSection(String section, Map<String, Integer> terms, int budget) {
+        String[] lines = section.split("\\n");
+        StringBuilder trimmed = new StringBuilder(lines[0].strip());
+        int kept = 0;
+        for (int i = 1; i < lines.length; i++) {
+            String line = lines[i].strip();
+            if (relevance(line, terms) > 0 && estimateTokens(trimmed.length() + 1 + line.length()) <= budget) {
+                trimmed.append('\n').append(line);
+                kept++;
+            }
+        }
+        return kept > 0 ? trimmed.toString() : null;
+    }
+
+    private static int relevance(String text, Map<String, Integer> terms) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        int score = 0;
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            if (lower.contains(term.getKey())) {
+                score += term.getValue();
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Search terms with their weights: the deck's card names count more than the
+     * archetype keywords derived from its roles and elixir average.
+     */
+    private static Map<String, Integer> relevantTerms(List<Card> deck, double avgElixir) {
+        Map<String, Integer> terms = new HashMap<>();
+        terms.put("elixir", KEYWORD_WEIGHT);
+        for (Card card : deck) {
+            if (card.getName() != null) {
+                terms.put(card.getName().toLowerCase(Locale.ROOT), CARD_NAME_WEIGHT);
+            }
+            String role = card.getRole() == null ? "" : card.getRole();
+            if ("WinCondition".equals(role)) {
+                terms.putIfAbsent("win condition", KEYWORD_WEIGHT);
+            } else if (role.contains("Spell")) {
+                terms.putIfAbsent("spell", KEYWORD_WEIGHT);
+            } else if ("Defense".equals(role)) {
+                terms.putIfAbsent("defens", KEYWORD_WEIGHT);
+            } else if ("Cycle".equals(role)) {
+                terms.putIfAbsent("cycle", KEYWORD_WEIGHT);
+            } else if (role.startsWith("Tank")) {
+                terms.putIfAbsent("tank", KEYWORD_WEIGHT);
+            } else if ("Support".equals(role)) {
+                terms.putIfAbsent("support", KEYWORD_WEIGHT);
+            }
+        }
+        if (avgElixir <= 3.2) {
+            terms.putIfAbsent("cycle", KEYWORD_WEIGHT);
+        } else if (avgElixir >= 4.0) {
+            terms.putIfAbsent("beatdown", KEYWORD_WEIGHT);
+        }
+        return terms;
+    }
+
+    private record CatalogDescriptor(Card card, String text) {
+
+        boolean matches(Card other) {
+            return card.getElixirCost() == other.getElixirCost()
+                && Objects.equals(card.getRole(), other.getRole())
+                && Objects.equals(card.getType(), other.getType());
+        }
+    }
+
+    private record ScoredSection(String text, int score, int order) {
+    }
+}
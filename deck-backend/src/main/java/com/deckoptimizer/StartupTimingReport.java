@@ -0,0 +1,172 @@
+package com.deckoptimizer;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Logs where startup time went once the application is ready: JVM boot before Spring, each
+ * top-level Spring Boot phase, the steps inside the context refresh and the slowest beans
+ * by their own creation time (excluding the dependencies they pulled in). Also logs how
+ * long after JVM start the first request was served, counting asynchronous responses only
+ * once they complete.
+ *
+ * Needs the {@link BufferingApplicationStartup} installed in {@link DeckBackendApplication#main}.
+ */
+@Component
+public class StartupTimingReport implements Filter {
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimingReport.class);
+
+    private static final String CONTEXT_REFRESH = "spring.context.refresh";
+    private static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+    private static final int SLOWEST_BEANS = 10;
+
+    private final AtomicBoolean firstRequestServed = new AtomicBoolean();
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            return;
+        }
+        // Nothing is recorded after this point, so release the buffer
+        StartupTimeline timeline = buffering.drainBufferedTimeline();
+        Instant jvmStart = Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime());
+        Map<String, Object> report = summarize(timeline, jvmStart, Instant.now());
+        logger.info("Startup timing: {}", report);
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        chain.doFilter(request, response);
+        if (firstRequestServed.get()) {
+            return;
+        }
+        if (request.isAsyncStarted()) {
+            // Streaming responses (e.g. /analyze/batch) are still being written at this point
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    recordFirstRequest();
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+        } else {
+            recordFirstRequest();
+        }
+    }
+
+    boolean isFirstRequestServed() {
+        return firstRequestServed.get();
+    }
+
+    private void recordFirstRequest() {
+        if (firstRequestServed.compareAndSet(false, true)) {
+            logger.info("First request served {} ms after JVM start", ManagementFactory.getRuntimeMXBean().getUptime());
+        }
+    }
+
+    /**
+     * Per-phase breakdown in milliseconds: {@code jvm} (JVM start until Spring started
+     * recording), {@code phases} (top-level steps in order), {@code refresh} (steps directly
+     * inside the context refresh), {@code slowestBeans} and {@code ready} (JVM start to ready).
+     */
+    static Map<String, Object> summarize(StartupTimeline timeline, Instant jvmStart, Instant ready) {
+        List<StartupTimeline.TimelineEvent> events = timeline.getEvents();
+
+        Map<Long, Long> ownNanos = new HashMap<>();
+        Long refreshId = null;
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            ownNanos.merge(step.getId(), event.getDuration().toNanos(), Long::sum);
+            if (step.getParentId() != null) {
+                ownNanos.merge(step.getParentId(), -event.getDuration().toNanos(), Long::sum);
+            }
+            if (CONTEXT_REFRESH.equals(step.getName())) {
+                refreshId = step.getId();
+            }
+        }
+
+        Map<String, Long> phases = new LinkedHashMap<>();
+        Map<String, Long> refresh = new LinkedHashMap<>();
+        List<StartupTimeline.TimelineEvent> beans = new ArrayList<>();
+        // Events are recorded when a step ends, so sort by start to report phases in order
+        List<StartupTimeline.TimelineEvent> byStart = new ArrayList<>(events);
+        byStart.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+        for (StartupTimeline.TimelineEvent event : byStart) {
+            StartupStep step = event.getStartupStep();
+            if (step.getParentId() == null) {
+                phases.merge(shortName(step.getName()), event.getDuration().toMillis(), Long::sum);
+            } else if (step.getParentId().equals(refreshId) && !BEAN_INSTANTIATE.equals(step.getName())) {
+                refresh.merge(shortName(step.getName()), event.getDuration().toMillis(), Long::sum);
+            }
+            if (BEAN_INSTANTIATE.equals(step.getName())) {
+                beans.add(event);
+            }
+        }
+
+        beans.sort((a, b) -> Long.compare(ownNanos.get(b.getStartupStep().getId()), ownNanos.get(a.getStartupStep().getId())));
+        Map<String, Long> slowestBeans = new LinkedHashMap<>();
+        for (StartupTimeline.TimelineEvent bean : beans.subList(0, Math.min(SLOWEST_BEANS, beans.size()))) {
+            slowestBeans.put(beanName(bean.getStartupStep()),
+                Duration.ofNanos(ownNanos.get(bean.getStartupStep().getId())).toMillis());
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("jvm", Math.max(0, Duration.between(jvmStart, timeline.getStartTime()).toMillis()));
+        report.put("phases", phases);
+        report.put("refresh", refresh);
+        report.put("slowestBeans", slowestBeans);
+        report.put("ready", Duration.between(jvmStart, ready).toMillis());
+        return report;
+    }
+
+    private static String shortName(String stepName) {
+        return stepName.replaceFirst("^spring\\.(boot\\.application\\.|context\\.)?", "");
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return String.valueOf(step.getId());
+    }
+}
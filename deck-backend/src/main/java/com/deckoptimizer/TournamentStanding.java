@@ -0,0 +1,41 @@
+package com.deckoptimizer;
+
+import java.util.List;
+
+/**
+ * One deck's tournament result. Decks are identified by their position in the request, since
+ * two entrants may share the same cards.
+ */
+public class TournamentStanding {
+    private int rank;
+    private final int deckIndex;
+    private final List<String> cards;
+    private final int wins;
+    private final int draws;
+    private final int losses;
+    private final double averageScore;
+
+    public TournamentStanding(int deckIndex, List<String> cards, int wins, int draws, int losses, double averageScore) {
+        this.deckIndex = deckIndex;
+        this.cards = cards;
+        this.wins = wins;
+        this.draws = draws;
+        this.losses = losses;
+        this.averageScore = averageScore;
+    }
+
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+
+    public int getDeckIndex() { return deckIndex; }
+
+    public List<String> getCards() { return cards; }
+
+    public int getWins() { return wins; }
+
+    public int getDraws() { return draws; }
+
+    public int getLosses() { return losses; }
+
+    public double getAverageScore() { return averageScore; }
+}
@@ -0,0 +1,33 @@
+package com.deckoptimizer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Published by {@link UpstreamSyncService} when a synced Clash Royale API endpoint returns
+ * content that differs from the previous snapshot.
+ */
+public class UpstreamSnapshotChangedEvent {
+    private final String path;
+    private final JsonNode snapshot;
+    private final int added;
+    private final int removed;
+    private final int changed;
+
+    public UpstreamSnapshotChangedEvent(String path, JsonNode snapshot, int added, int removed, int changed) {
+        this.path = path;
+        this.snapshot = snapshot;
+        this.added = added;
+        this.removed = removed;
+        this.changed = changed;
+    }
+
+    public String getPath() { return path; }
+
+    public JsonNode getSnapshot() { return snapshot; }
+
+    public int getAdded() { return added; }
+
+    public int getRemoved() { return removed; }
+
+    public int getChanged() { return changed; }
+}
@@ -0,0 +1,199 @@
+package com.deckoptimizer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.annotation.PostConstruct;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Periodically syncs the card, season and tournament endpoints of the Clash Royale API.
+ *
+ * Each poll is a conditional GET using the last ETag. A 304, or a 200 whose body hashes the
+ * same as the previous one, is a no-op. Only real changes are parsed, diffed against the
+ * previous snapshot and published as an {@link UpstreamSnapshotChangedEvent}, so dependent
+ * caches rebuild only when the data actually changed.
+ */
+@Service
+public class UpstreamSyncService {
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamSyncService.class);
+
+    static final List<String> SYNCED_PATHS = List.of(
+        ClashRoyaleApiService.CARDS_PATH,
+        ClashRoyaleApiService.SEASON_PATH,
+        ClashRoyaleApiService.TOURNAMENTS_PATH);
+
+    private static final String TIER_PREFIX = "upstream:";
+    private static final String ETAG_PREFIX = "upstream-etag:";
+
+    private final ClashRoyaleApiService clashRoyaleApiService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PersistentCacheTier persistentTier;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final boolean enabled;
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    public UpstreamSyncService(ClashRoyaleApiService clashRoyaleApiService, ApplicationEventPublisher eventPublisher,
+                               PersistentCacheTier persistentTier,
+                               @Value("${clashroyale.sync.enabled:true}") boolean enabled) {
+        this.clashRoyaleApiService = clashRoyaleApiService;
+        this.eventPublisher = eventPublisher;
+        this.persistentTier = persistentTier;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Restore the snapshots persisted by a previous run, so the API service starts warm and
+     * the first poll only reports a change if upstream moved on in the meantime.
+     */
+    @PostConstruct
+    public void restoreSnapshots() {
+        for (String path : SYNCED_PATHS) {
+            ByteBuffer stored = persistentTier.getBuffer(TIER_PREFIX + path);
+            if (stored == null) {
+                continue;
+            }
+            byte[] body = new byte[stored.remaining()];
+            stored.get(body);
+            try {
+                JsonNode content = mapper.readTree(body);
+                String etag = persistentTier.get(ETAG_PREFIX + path);
+                snapshots.put(path, new Snapshot(etag == null || etag.isEmpty() ? null : etag, sha256(body), content));
+                clashRoyaleApiService.restoreSnapshot(path, content);
+                logger.info("Restored {} snapshot from persistent cache", path);
+            } catch (Exception e) {
+                logger.warn("Ignoring unreadable persisted snapshot of {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${clashroyale.sync.initial-delay-ms:10000}",
+               fixedDelayString = "${clashroyale.sync.interval-ms:300000}")
+    public void syncAll() {
+        if (!enabled) {
+            return;
+        }
+        for (String path : SYNCED_PATHS) {
+            sync(path);
+        }
+    }
+
+    /**
+     * Poll one endpoint.
+     *
+     * @return true if the content changed and an event was published
+     */
+    public boolean sync(String path) {
+        Snapshot previous = snapshots.get(path);
+        ResponseEntity<byte[]> response;
+        try {
+            response = clashRoyaleApiService.fetchConditional(path, previous == null ? null : previous.etag).block();
+        } catch (RuntimeException e) {
+            logger.warn("Sync of {} failed, keeping previous snapshot: {}", path, e.getMessage());
+            return false;
+        }
+        if (response == null || response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            logger.debug("Sync of {}: not modified", path);
+            return false;
+        }
+
+        byte[] body = response.getBody() == null ? new byte[0] : response.getBody();
+        String etag = response.getHeaders().getETag();
+        byte[] hash = sha256(body);
+        if (previous != null && MessageDigest.isEqual(previous.hash, hash)) {
+            // Same content without ETag support upstream: remember any new ETag and move on
+            snapshots.put(path, new Snapshot(etag, hash, previous.content));
+            persistentTier.put(ETAG_PREFIX + path, etag == null ? "" : etag);
+            logger.debug("Sync of {}: content unchanged", path);
+            return false;
+        }
+
+        JsonNode content;
+        try {
+            content = mapper.readTree(body);
+        } catch (Exception e) {
+            logger.warn("Sync of {} returned unparseable content: {}", path, e.getMessage());
+            return false;
+        }
+        snapshots.put(path, new Snapshot(etag, hash, content));
+        persistentTier.put(TIER_PREFIX + path, body);
+        persistentTier.put(ETAG_PREFIX + path, etag == null ? "" : etag);
+
+        int[] diff = diffItems(previous == null ? null : previous.content, content);
+        logger.info("Sync of {}: changed ({} added, {} removed, {} changed)", path, diff[0], diff[1], diff[2]);
+        eventPublisher.publishEvent(new UpstreamSnapshotChangedEvent(path, content, diff[0], diff[1], diff[2]));
+        return true;
+    }
+
+    /**
+     * Compare the "items" arrays of two payloads by item name (or id).
+     *
+     * @return added, removed and changed counts; a payload without items counts as one change
+     */
+    static int[] diffItems(JsonNode previous, JsonNode current) {
+        if (previous == null || !previous.has("items") || !current.has("items")) {
+            return previous == null && current.has("items")
+                ? new int[] {current.get("items").size(), 0, 0}
+                : new int[] {0, 0, 1};
+        }
+        Map<String, JsonNode> before = new HashMap<>();
+        for (JsonNode item : previous.get("items")) {
+            before.put(itemKey(item), item);
+        }
+        int added = 0;
+        int changed = 0;
+        for (Iterator<JsonNode> it = current.get("items").elements(); it.hasNext(); ) {
+            JsonNode item = it.next();
+            JsonNode old = before.remove(itemKey(item));
+            if (old == null) {
+                added++;
+            } else if (!old.equals(item)) {
+                changed++;
+            }
+        }
+        return new int[] {added, before.size(), changed};
+    }
+
+    private static String itemKey(JsonNode item) {
+        if (item.has("id")) {
+            return item.get("id").asText();
+        }
+        return item.has("name") ? item.get("name").asText() : item.toString();
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Snapshot {
+        final String etag;
+        final byte[] hash;
+        final JsonNode content;
+
+        Snapshot(String etag, byte[] hash, JsonNode content) {
+            this.etag = etag;
+            this.hash = hash;
+            this.content = content;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.deckoptimizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    public void testRejectsWhenQueuesAreFull() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 4, 0.5, 2.0, 1, 2, 2000);
+        AdaptiveConcurrencyLimiter.Permit held = limiter.acquire("a");
+
+        Thread queuedA = new Thread(() -> limiter.acquire("a").close());
+        queuedA.start();
+        awaitQueued(limiter, 1);
+
+        AdmissionRejectedException perClient = assertThrows(AdmissionRejectedException.class, () -> limiter.acquire("a"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, perClient.getStatus());
+        assertTrue(perClient.getRetryAfterSeconds() >= 1);
+
+        Thread queuedB = new Thread(() -> limiter.acquire("b").close());
+        queuedB.start();
+        awaitQueued(limiter, 2);
+
+        AdmissionRejectedException global = assertThrows(AdmissionRejectedException.class, () -> limiter.acquire("c"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, global.getStatus());
+
+        held.close();
+        queuedA.join();
+        queuedB.join();
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    public void testServesClientsRoundRobin() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.5, 2.0, 8, 16, 5000);
+        AdaptiveConcurrencyLimiter.Permit held = limiter.acquire("a");
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        Thread[] threads = new Thread[4];
+        String[] clients = {"a", "a", "a", "b"};
+        for (int i = 0; i < clients.length; i++) {
+            String client = clients[i];
+            threads[i] = new Thread(() -> {
+                try (AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(client)) {
+                    order.add(client);
+                }
+            });
+            threads[i].start();
+            awaitQueued(limiter, i + 1);
+        }
+
+        held.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(List.of("a", "b", "a", "a"), order);
+    }
+
+    @Test
+    public void testFailuresShrinkTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 64, 0.5, 2.0, 8, 16, 1000);
+        for (int i = 0; i < 3; i++) {
+            AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire("a");
+            permit.markFailed();
+            permit.close();
+        }
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    public void testBaselineDoesNotDriftUpUnderSustainedSlowness() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 64, 0.9, 2.0, 8, 16, 1000);
+        try (AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire("a")) {
+            Thread.sleep(10);
+        }
+        long baseline = limiter.getBaselineMillis();
+
+        for (int i = 0; i < 25; i++) {
+            try (AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire("a")) {
+                Thread.sleep(Math.max(80, baseline * 3));
+            }
+        }
+        // Every call stayed slow relative to the baseline, so the limit kept shrinking
+        assertEquals(baseline, limiter.getBaselineMillis());
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    public void testBaselineMovesUpOnlyAfterAFullWindowOfSlowCalls() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 64, 0.9, 2.0, 8, 16, 1000);
+        limiter.acquire("a").close();
+        long fast = limiter.getBaselineMillis();
+
+        // The first window still contains the fast call, so its minimum keeps the baseline down
+        for (int i = 1; i < AdaptiveConcurrencyLimiter.BASELINE_WINDOW; i++) {
+            slowCall(limiter, 10);
+        }
+        assertEquals(fast, limiter.getBaselineMillis());
+
+        // A whole window of slow calls: the upstream is slower now, not just congested
+        for (int i = 0; i < AdaptiveConcurrencyLimiter.BASELINE_WINDOW; i++) {
+            slowCall(limiter, 10);
+        }
+        assertTrue(limiter.getBaselineMillis() >= 10, "baseline = " + limiter.getBaselineMillis());
+    }
+
+    private static void slowCall(AdaptiveConcurrencyLimiter limiter, long millis) throws InterruptedException {
+        try (AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire("a")) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private static void awaitQueued(AdaptiveConcurrencyLimiter limiter, int expected) throws InterruptedException {
+        for (int i = 0; i < 200 && limiter.getQueued() < expected; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, limiter.getQueued());
+    }
+}
@@ -0,0 +1,92 @@
+package com.deckoptimizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BatchAnalysisServiceTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private final OpenAiAnalysisService openAi = new OpenAiAnalysisService("test-key", "http://localhost/", new PromptBuilder(emptyCatalog(), 700)) {
+        @Override
+        public String analyzeDeck(List<Card> deck, String userQuery, String royaleApiData) {
+            calls.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(deck.get(0).getElixirCost() * 20L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return "analysis of " + deck.get(0).getName();
+        }
+    };
+
+    private final ClashRoyaleApiService clashRoyale = new ClashRoyaleApiService("test-key", "http://localhost:1", 10, 10, 100, 100, 1, 1, 0, 1, 1, 1000) {
+        @Override
+        public String createMetaAnalysisData() {
+            return "meta";
+        }
+    };
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 64, 0.9, 2.0, 16, 64, 5000);
+
+    private static List<Card> deck(String name, int cost) {
+        return List.of(new Card(name, "Troop", cost, "WinCondition", "Rare", null));
+    }
+
+    @Test
+    public void testDedupesAndServesCachedDecksFirst() {
+        DeckAnalysisCache cache = new DeckAnalysisCache(100, new PersistentCacheTier(false, "", 0, 0));
+        cache.put(DeckAnalysisCache.cacheKey(deck("Giant", 5), "q"), "cached giant");
+        BatchAnalysisService service = new BatchAnalysisService(openAi, clashRoyale, cache, limiter, 2, 50);
+
+        List<BatchAnalysisResult> results = service.analyze(
+            List.of(deck("Hog Rider", 4), deck("Giant", 5), deck("Hog Rider", 4), deck("Miner", 3)), "q", "client")
+            .collectList().block();
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isCached());
+        assertEquals("cached giant", results.get(0).getAnalysis());
+        assertEquals(2, calls.get());
+        BatchAnalysisResult hog = results.stream().filter(r -> r.getDeckKey().equals("hog rider")).findFirst().orElseThrow();
+        assertEquals(List.of(0, 2), hog.getIndices());
+        assertNotNull(cache.get(DeckAnalysisCache.cacheKey(deck("Miner", 3), "q")));
+    }
+
+    @Test
+    public void testLimitsConcurrencyAndStreamsInCompletionOrder() {
+        BatchAnalysisService service = new BatchAnalysisService(openAi, clashRoyale, new DeckAnalysisCache(100, new PersistentCacheTier(false, "", 0, 0)), limiter, 3, 50);
+
+        List<BatchAnalysisResult> results = service.analyze(
+            List.of(deck("Golem", 8), deck("Miner", 3), deck("Skeletons", 1), deck("Giant", 5), deck("Hog Rider", 4)), "q", "client")
+            .collectList().block();
+
+        assertEquals(5, results.size());
+        assertTrue(maxInFlight.get() <= 3);
+        assertEquals("skeletons", results.get(0).getDeckKey());
+    }
+
+    @Test
+    public void testCacheKeyDoesNotCollideOnQueryHashCode() {
+        // "Aa" and "BB" share a String.hashCode
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertNotEquals(DeckAnalysisCache.cacheKey("giant", "Aa"), DeckAnalysisCache.cacheKey("giant", "BB"));
+        assertEquals(DeckAnalysisCache.cacheKey("giant", " How do I play? "), DeckAnalysisCache.cacheKey("giant", "how do i play?"));
+    }
+
+    private static CardLoader emptyCatalog() {
+        return new CardLoader() {
+            @Override
+            public List<Card> getCards() {
+                return List.of();
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.deckoptimizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class CardSearchIndexTest {
+
+    private static CardSearchIndex index;
+
+    @BeforeAll
+    public static void loadCatalog() throws Exception {
+        List<Card> cards = Arrays.asList(new ObjectMapper().readValue(
+            CardSearchIndexTest.class.getResourceAsStream("/cards.json"), Card[].class));
+        index = new CardSearchIndex(cards);
+    }
+
+    private static List<String> names(List<Card> cards) {
+        return cards.stream().map(Card::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testPrefixMatchesWordStarts() {
+        List<String> results = names(index.search("hog", null, null, null, null, 10));
+        assertEquals("Hog Rider", results.get(0));
+
+        assertTrue(names(index.search("rider", null, null, null, null, 10)).contains("Hog Rider"));
+        assertEquals("P.E.K.K.A", names(index.search("pek", null, null, null, null, 10)).get(0));
+    }
+
+    @Test
+    public void testFuzzyMatchesTypos() {
+        assertEquals("Musketeer", names(index.search("muskateer", null, null, null, null, 5)).get(0));
+    }
+
+    @Test
+    public void testFilters() {
+        List<Card> spells = index.search("", "bigspell", null, null, null, 50);
+        assertFalse(spells.isEmpty());
+        assertTrue(spells.stream().allMatch(c -> "BigSpell".equals(c.getRole())));
+
+        List<Card> cheapBuildings = index.search(null, null, "Building", null, 3, 50);
+        assertTrue(cheapBuildings.stream().allMatch(c -> c.getElixirCost() == 3 && "Building".equals(c.getType())));
+        assertTrue(names(cheapBuildings).contains("Cannon"));
+
+        assertTrue(index.search("hog", "Spell", null, null, null, 10).isEmpty());
+        assertTrue(index.search("hog", null, null, "Mythic", null, 10).isEmpty());
+    }
+}
@@ -0,0 +1,53 @@
+package com.deckoptimizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class CircuitBreakerTest {
+
+    @Test
+    public void testCancelledTrialLetsTheNextRequestTry() throws Exception {
+        CircuitBreaker breaker = tripped(50);
+        Thread.sleep(60);
+
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        breaker.recordCancel();
+        assertTrue(breaker.allowRequest());
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testLostTrialTimesOutBackToOpen() throws Exception {
+        CircuitBreaker breaker = tripped(50);
+        Thread.sleep(60);
+        assertTrue(breaker.allowRequest());
+
+        // The trial never reports back
+        Thread.sleep(60);
+        assertFalse(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(60);
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testCancelWhileClosedChangesNothing() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 1000);
+        breaker.recordCancel();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    private static CircuitBreaker tripped(long openMillis) {
+        CircuitBreaker breaker = new CircuitBreaker(1, openMillis);
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+}
@@ -0,0 +1,129 @@
+package com.deckoptimizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the client against a local stub server that injects errors and latency.
+ */
+public class ClashRoyaleApiServiceTest {
+
+    private static final String CARDS = "{\"items\":[{\"name\":\"Hog Rider\",\"elixirCost\":4,\"rarity\":\"Rare\"}]}";
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int failuresLeft;
+    private volatile int failureStatus = 503;
+    private volatile long delayMillis;
+
+    @BeforeEach
+    public void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/cards", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            boolean fail = failuresLeft-- > 0;
+            byte[] body = (fail ? "{\"reason\":\"injected\"}" : CARDS).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(fail ? failureStatus : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopStub() {
+        server.stop(0);
+    }
+
+    private ClashRoyaleApiService client(int maxRetries, int failureThreshold) {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1";
+        return new ClashRoyaleApiService("test-key", baseUrl, 100, 10, 500, 300, 4, 10,
+            maxRetries, 10, failureThreshold, 60_000);
+    }
+
+    @Test
+    public void testRetriesTransientErrors() {
+        failuresLeft = 2;
+        failureStatus = 429;
+
+        JsonNode cards = client(3, 5).getCards().block();
+
+        assertNotNull(cards);
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void testDoesNotRetryClientErrors() {
+        failuresLeft = 1;
+        failureStatus = 403;
+
+        assertNull(client(3, 5).getCards().block());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testClientErrorsDoNotTripTheBreaker() {
+        failuresLeft = Integer.MAX_VALUE;
+        failureStatus = 403;
+        ClashRoyaleApiService api = client(0, 2);
+
+        for (int i = 0; i < 3; i++) {
+            assertNull(api.getCards().block());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, api.getCircuitState());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void testNoCardsYetFallsBackInsteadOfFailing() {
+        failuresLeft = Integer.MAX_VALUE;
+        ClashRoyaleApiService api = client(0, 1);
+
+        assertNull(api.getCardByName("Hog Rider"));
+        assertEquals(CircuitBreaker.State.OPEN, api.getCircuitState());
+        assertNull(api.getCardByName("Hog Rider"));
+        assertTrue(api.createMetaAnalysisData().contains("Popular Archetypes"));
+    }
+
+    @Test
+    public void testOpenCircuitServesLastKnownGood() {
+        ClashRoyaleApiService api = client(0, 2);
+        assertNotNull(api.getCards().block());
+
+        failuresLeft = Integer.MAX_VALUE;
+        assertNotNull(api.getCards().block());
+        assertNotNull(api.getCards().block());
+        assertEquals(CircuitBreaker.State.OPEN, api.getCircuitState());
+
+        int before = requests.get();
+        JsonNode cards = api.getCards().block();
+        assertEquals("Hog Rider", cards.get("items").get(0).get("name").asText());
+        assertEquals(before, requests.get());
+    }
+
+    @Test
+    public void testTimesOutSlowResponses() {
+        delayMillis = 1000;
+
+        long start = System.nanoTime();
+        assertNull(client(0, 5).getCards().block());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 900);
+    }
+}
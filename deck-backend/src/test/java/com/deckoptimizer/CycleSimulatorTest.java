@@ -0,0 +1,38 @@
+package com.deckoptimizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class CycleSimulatorTest {
+
+    private final CycleSimulator simulator = new CycleSimulator(2000, 180, 2.0, 42L);
+
+    @Test
+    public void testCheapestFourCardCycle() {
+        assertEquals(7, CycleSimulator.cheapestFourCardCycle(new int[] {4, 1, 3, 2, 5, 1, 6, 3}));
+    }
+
+    @Test
+    public void testSimulationProducesMetrics() {
+        int[] costs = {4, 4, 3, 1, 3, 2, 1, 4};
+        boolean[] winConditions = {true, false, false, false, false, false, false, false};
+
+        CycleMetrics metrics = simulator.simulate(costs, winConditions, 2000);
+
+        assertEquals(6000, metrics.getSimulatedDeckMinutes());
+        assertEquals(7, metrics.getCheapestFourCardCycle());
+        assertTrue(metrics.getWinConditionReturnSeconds() > 0);
+        assertTrue(metrics.getElixirLeakRatio() >= 0 && metrics.getElixirLeakRatio() < 1);
+        assertTrue(metrics.getCardsPerMinute() > 0);
+    }
+
+    @Test
+    public void testHeavierDeckCyclesSlower() {
+        boolean[] winConditions = {true, false, false, false, false, false, false, false};
+        CycleMetrics cheap = simulator.simulate(new int[] {4, 1, 1, 2, 2, 3, 2, 3}, winConditions, 2000);
+        CycleMetrics heavy = simulator.simulate(new int[] {7, 5, 6, 4, 5, 3, 6, 4}, winConditions, 2000);
+
+        assertTrue(heavy.getWinConditionReturnSeconds() > cheap.getWinConditionReturnSeconds());
+        assertTrue(heavy.getCardsPerMinute() < cheap.getCardsPerMinute());
+    }
+}
@@ -1,13 +1,30 @@
 package com.deckoptimizer;
 
+import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 
-@SpringBootTest
+// No upstream sync, deck pool producer or cache file: the context test must not touch the network or disk
+@SpringBootTest(properties = {
+	"cache.mmap.enabled=false",
+	"clashroyale.sync.enabled=false",
+	"deck.pool.enabled=false"
+})
 class DeckBackendApplicationTests {
 
+	@Autowired
+	private RequestMappingHandlerAdapter handlerAdapter;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void asyncTimeoutIsLongEnoughForBatchStreams() {
+		assertEquals(300_000L, ReflectionTestUtils.getField(handlerAdapter, "asyncRequestTimeout"));
+	}
+
 }
@@ -0,0 +1,63 @@
+package com.deckoptimizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+public class DeckPoolTest {
+
+    private static DeckService deckService;
+
+    @BeforeAll
+    public static void loadCards() throws Exception {
+        CardLoader loader = new CardLoader();
+        loader.loadCards();
+        deckService = new DeckService(loader, new CycleSimulator(10, 180, 2.0, 1L));
+    }
+
+    @Test
+    public void testPrefillsThenRefillsAfterDraining() throws Exception {
+        DeckPool pool = new DeckPool(deckService, true, 16, 4, 16);
+        pool.start();
+        try {
+            awaitDepth(pool, 16);
+            assertEquals(16L, pool.getStats().get("produced"));
+
+            // Draining to the low watermark wakes the producer
+            for (int i = 0; i < 12; i++) {
+                assertEquals(8, pool.next().getCards().size());
+            }
+            awaitDepth(pool, 16);
+
+            Map<String, Object> stats = pool.getStats();
+            assertEquals(12L, stats.get("hits"));
+            assertEquals(0L, stats.get("misses"));
+            assertEquals(28L, stats.get("produced"));
+        } finally {
+            pool.stop();
+        }
+    }
+
+    @Test
+    public void testGeneratesInlineWhenThePoolIsEmpty() {
+        DeckPool pool = new DeckPool(deckService, false, 16, 4, 16);
+        pool.start();
+
+        Deck deck = pool.next();
+
+        assertEquals(8, deck.getCards().size());
+        Map<String, Object> stats = pool.getStats();
+        assertEquals(0, stats.get("depth"));
+        assertEquals(0L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+    }
+
+    private static void awaitDepth(DeckPool pool, int expected) throws InterruptedException {
+        for (int i = 0; i < 500 && (int) pool.getStats().get("depth") < expected; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, pool.getStats().get("depth"));
+    }
+}
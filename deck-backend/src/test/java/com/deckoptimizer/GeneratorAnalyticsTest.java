@@ -0,0 +1,83 @@
+package com.deckoptimizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class GeneratorAnalyticsTest {
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testReportCountsEveryGeneratedDeck() throws Exception {
+        CardLoader loader = new CardLoader();
+        loader.loadCards();
+        DeckService deckService = new DeckService(loader, new CycleSimulator(10, 180, 2.0, 1L));
+        GeneratorAnalytics analytics = new GeneratorAnalytics(deckService, loader, 100_000, 2);
+
+        Map<String, Object> report = analytics.run(20_000, 3L);
+
+        assertEquals(20_000L, report.get("decks"));
+        List<Map<String, Object>> cards = (List<Map<String, Object>>) report.get("cardFrequency");
+        double inclusions = cards.stream().mapToDouble(c -> (double) c.get("frequency")).sum();
+        assertEquals(8.0, inclusions, 1e-9);
+
+        double histogram = ((Map<String, Double>) report.get("averageElixirHistogram")).values().stream()
+            .mapToDouble(Double::doubleValue).sum();
+        assertEquals(1.0, histogram, 1e-9);
+
+        // The generator always picks one or two win conditions
+        Map<String, Double> winConditions = (Map<String, Double>) report.get("winConditionsPerDeck");
+        assertTrue(winConditions.keySet().stream().allMatch(k -> k.equals("1") || k.equals("2")));
+        assertFalse(((List<?>) report.get("topPairsByLift")).isEmpty());
+    }
+
+    @Test
+    public void testRunIsCappedAtMaxDecks() throws Exception {
+        CardLoader loader = new CardLoader();
+        loader.loadCards();
+        DeckService deckService = new DeckService(loader, new CycleSimulator(10, 180, 2.0, 1L));
+        GeneratorAnalytics analytics = new GeneratorAnalytics(deckService, loader, 500, 2);
+
+        assertEquals(500L, analytics.run(1_000_000, 1L).get("decks"));
+    }
+
+    @Test
+    public void testRejectsASecondRunWhileOneIsInProgress() throws Exception {
+        CardLoader loader = new CardLoader();
+        loader.loadCards();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DeckService blocking = new DeckService(loader, new CycleSimulator(10, 180, 2.0, 1L)) {
+            @Override
+            Deck buildBalancedDeck(Random random) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.buildBalancedDeck(random);
+            }
+        };
+        GeneratorAnalytics analytics = new GeneratorAnalytics(blocking, loader, 1000, 2);
+
+        CompletableFuture<Map<String, Object>> first = CompletableFuture.supplyAsync(() -> analytics.run(10, 1L));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class, () -> analytics.run(10, 1L));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatus());
+
+        release.countDown();
+        assertEquals(10L, first.get(5, TimeUnit.SECONDS).get("decks"));
+        assertEquals(10L, analytics.run(10, 1L).get("decks"));
+        analytics.shutdown();
+    }
+}
@@ -0,0 +1,130 @@
+package com.deckoptimizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class MappedCacheStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testEvictOldestKeepsLogOrderAcrossCompaction() throws Exception {
+        try (MappedCacheStore store = new MappedCacheStore(dir.resolve("cache.dat"), 64, 4096)) {
+            for (int i = 0; i < 8; i++) {
+                assertTrue(store.put("key" + i, "value" + i));
+            }
+            // Rewriting key0 makes it the newest entry
+            assertTrue(store.put("key0", "value0 again"));
+            store.compact();
+
+            assertEquals(2, store.evictOldest(0.2));
+            store.compact();
+
+            assertNull(store.get("key1"));
+            assertNull(store.get("key2"));
+            assertEquals("value3", store.get("key3"));
+            assertEquals("value0 again", store.get("key0"));
+            assertEquals(6, store.size());
+        }
+    }
+
+    @Test
+    public void testPutGetAndReopen() throws Exception {
+        Path file = dir.resolve("cache.dat");
+        try (MappedCacheStore store = new MappedCacheStore(file, 64, 4096)) {
+            assertTrue(store.put("hog rider,the log#1a", "cycle deck"));
+            assertTrue(store.put("golem,night witch#1a", "beatdown"));
+            assertTrue(store.put("hog rider,the log#1a", "fast cycle deck"));
+            assertEquals("fast cycle deck", store.get("hog rider,the log#1a"));
+            assertNull(store.get("missing"));
+
+            ByteBuffer view = store.getBuffer("golem,night witch#1a");
+            assertTrue(view.isReadOnly());
+            assertEquals(8, view.remaining());
+        }
+
+        try (MappedCacheStore reopened = new MappedCacheStore(file, 64, 4096)) {
+            assertEquals("fast cycle deck", reopened.get("hog rider,the log#1a"));
+            assertEquals("beatdown", reopened.get("golem,night witch#1a"));
+            assertEquals(2, reopened.size());
+        }
+    }
+
+    @Test
+    public void testRemoveByPrefix() throws Exception {
+        try (MappedCacheStore store = new MappedCacheStore(dir.resolve("cache.dat"), 64, 4096)) {
+            store.put("analysis:a", "1");
+            store.put("analysis:b", "2");
+            store.put("upstream:/cards", "{}");
+
+            assertEquals(2, store.removeByPrefix("analysis:"));
+            assertNull(store.get("analysis:a"));
+            assertEquals("{}", store.get("upstream:/cards"));
+
+            assertTrue(store.put("analysis:a", "3"));
+            assertEquals("3", store.get("analysis:a"));
+        }
+    }
+
+    @Test
+    public void testCompactionReclaimsSpaceAndRemapsOtherHandles() throws Exception {
+        Path file = dir.resolve("cache.dat");
+        try (MappedCacheStore writer = new MappedCacheStore(file, 64, 4096);
+             MappedCacheStore reader = new MappedCacheStore(file, 64, 4096)) {
+            for (int i = 0; i < 100; i++) {
+                assertTrue(writer.put("key", "value " + i));
+            }
+            writer.put("other", "kept");
+            assertEquals("value 99", reader.get("key"));
+
+            long before = writer.getWriteOffset();
+            assertTrue(writer.compactIfNeeded());
+            assertTrue(writer.getWriteOffset() < before);
+            assertEquals(writer.getLiveBytes(), writer.getWriteOffset());
+
+            assertEquals("value 99", reader.get("key"));
+            assertEquals("kept", reader.get("other"));
+            assertTrue(reader.put("third", "after compaction"));
+            assertEquals("after compaction", writer.get("third"));
+        }
+    }
+
+    @Test
+    public void testWritesAfterAnotherHandleCompactedLandInTheNewFile() throws Exception {
+        Path file = dir.resolve("cache.dat");
+        try (MappedCacheStore first = new MappedCacheStore(file, 64, 4096);
+             MappedCacheStore second = new MappedCacheStore(file, 64, 4096)) {
+            first.put("analysis:a", "1");
+            first.put("upstream:/cards", "{}");
+            first.compact();
+
+            assertEquals(1, second.removeByPrefix("analysis:"));
+            second.compact();
+            assertTrue(second.put("analysis:b", "2"));
+
+            assertNull(first.get("analysis:a"));
+            assertEquals("2", first.get("analysis:b"));
+            assertEquals("{}", first.get("upstream:/cards"));
+        }
+        // Compaction temp files are renamed into place, none are left behind
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    public void testRejectsWritesWhenFull() throws Exception {
+        try (MappedCacheStore store = new MappedCacheStore(dir.resolve("cache.dat"), 64, 64)) {
+            assertTrue(store.put("a", "0123456789"));
+            assertFalse(store.put("b", "x".repeat(100)));
+        }
+    }
+}
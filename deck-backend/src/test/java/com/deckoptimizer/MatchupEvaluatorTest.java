@@ -0,0 +1,102 @@
+package com.deckoptimizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class MatchupEvaluatorTest {
+
+    private final MatchupEvaluator evaluator = new MatchupEvaluator(new CycleSimulator(2000, 180, 2.0, 7L), 100, 10_000, 64);
+
+    private static Card card(String name, int cost, String role) {
+        return new Card(name, "Troop", cost, role, "Common", null);
+    }
+
+    private static List<Card> cycleDeck() {
+        return List.of(card("Hog Rider", 4, "WinCondition"), card("Cannon", 3, "Defense"),
+            card("Ice Spirit", 1, "Cycle"), card("Skeletons", 1, "Cycle"), card("The Log", 2, "SmallSpell"),
+            card("Fireball", 4, "BigSpell"), card("Musketeer", 4, "Support"), card("Valkyrie", 4, "Tank Killer"));
+    }
+
+    private static List<Card> beatdownDeck() {
+        return List.of(card("Golem", 8, "WinCondition"), card("Giant", 5, "WinCondition"),
+            card("Lava Hound", 7, "WinCondition"), card("Balloon", 5, "WinCondition"), card("P.E.K.K.A", 7, "Tank"),
+            card("Rocket", 6, "BigSpell"), card("Witch", 5, "Support"), card("Bowler", 5, "Support"));
+    }
+
+    @Test
+    public void testScoreIsAntisymmetric() {
+        double ab = evaluator.evaluate(cycleDeck(), beatdownDeck());
+        double ba = evaluator.evaluate(beatdownDeck(), cycleDeck());
+        assertEquals(ab, -ba, 1e-9);
+        assertTrue(ab > 0);
+    }
+
+    @Test
+    public void testProfilesAreKeyedByClientSuppliedMetadata() {
+        List<Card> relabeled = cycleDeck().stream()
+            .map(c -> card(c.getName(), c.getElixirCost(), "Cycle"))
+            .toList();
+
+        double original = evaluator.evaluate(cycleDeck(), beatdownDeck());
+        double withOtherRoles = evaluator.evaluate(relabeled, beatdownDeck());
+
+        assertNotEquals(original, withOtherRoles, 1e-9);
+        assertEquals(original, evaluator.evaluate(cycleDeck(), beatdownDeck()), 1e-12);
+    }
+
+    @Test
+    public void testTournamentLargerThanTheCacheMatchesCachedResults() {
+        MatchupEvaluator small = new MatchupEvaluator(new CycleSimulator(2000, 180, 2.0, 7L), 100, 10, 64);
+        List<List<Card>> decks = field(20);
+
+        List<TournamentStanding> cached = evaluator.runTournament(decks);
+        List<TournamentStanding> uncached = small.runTournament(decks);
+
+        for (int i = 0; i < cached.size(); i++) {
+            assertEquals(cached.get(i).getDeckIndex(), uncached.get(i).getDeckIndex());
+            assertEquals(cached.get(i).getAverageScore(), uncached.get(i).getAverageScore(), 1e-12);
+        }
+    }
+
+    @Test
+    public void testIdenticalEntrantsGetTheirOwnStandings() {
+        List<TournamentStanding> standings = evaluator.runTournament(List.of(cycleDeck(), cycleDeck(), beatdownDeck()));
+
+        assertEquals(Set.of(0, 1, 2), standings.stream().map(TournamentStanding::getDeckIndex).collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void testTournamentRanksAllDecks() {
+        List<List<Card>> decks = field(20);
+
+        List<TournamentStanding> standings = evaluator.runTournament(decks);
+
+        assertEquals(20, standings.size());
+        assertEquals(1, standings.get(0).getRank());
+        for (TournamentStanding standing : standings) {
+            assertEquals(19, standing.getWins() + standing.getDraws() + standing.getLosses());
+        }
+        for (int i = 1; i < standings.size(); i++) {
+            assertTrue(standings.get(i - 1).getAverageScore() >= standings.get(i).getAverageScore());
+        }
+    }
+
+    private static List<List<Card>> field(int size) {
+        List<Card> pool = new ArrayList<>(cycleDeck());
+        pool.addAll(beatdownDeck());
+        Random random = new Random(3);
+        List<List<Card>> decks = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            List<Card> shuffled = new ArrayList<>(pool);
+            java.util.Collections.shuffle(shuffled, random);
+            decks.add(shuffled.subList(0, 8));
+        }
+        return decks;
+    }
+}
@@ -0,0 +1,33 @@
+package com.deckoptimizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+public class PersistentCacheTierTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testFullStoreEvictsOldestEntriesInsteadOfDroppingWrites() throws Exception {
+        PersistentCacheTier tier = new PersistentCacheTier(true, dir.resolve("cache.dat").toString(), 64, 1);
+        try {
+            String value = "x".repeat(10_000);
+            for (int i = 0; i < 200; i++) {
+                tier.put("deck" + i, value);
+            }
+
+            assertEquals(value, tier.get("deck199"));
+            assertNull(tier.get("deck0"));
+            Map<String, Object> stats = tier.getStats();
+            assertTrue((long) stats.get("evicted") > 0);
+            assertEquals(0L, stats.get("skippedWrites"));
+        } finally {
+            tier.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.deckoptimizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class PromptBuilderTest {
+
+    private static CardLoader catalog;
+
+    @BeforeAll
+    public static void loadCatalog() throws Exception {
+        catalog = new CardLoader();
+        catalog.loadCards();
+    }
+
+    private static final String META = """
+        Strong Cards in Meta:
+        - Win Conditions: Hog Rider, Giant, Balloon
+        - Spells: Fireball, The Log
+
+        Bridge Spam:
+        - Quick pressure with dual lane potential
+
+        Key Strategies:
+        - Elixir efficiency is crucial
+        - Cycle speed affects playstyle significantly
+        """;
+
+    private final List<Card> deck = List.of(
+        new Card("Hog Rider", "Troop", 4, "WinCondition", "Rare", null),
+        new Card("The Log", "Spell", 2, "SmallSpell", "Legendary", null),
+        new Card("Ice Spirit", "Troop", 1, "Cycle", "Common", null));
+
+    @Test
+    public void testIncludesOnlyRelevantMeta() {
+        String prompt = new PromptBuilder(catalog, 700).buildUserPrompt(deck, "How do I play this?", META);
+
+        assertTrue(prompt.contains("- Hog Rider (4 elixir, WinCondition, Troop)"));
+        assertTrue(prompt.contains("Strong Cards in Meta:"));
+        assertTrue(prompt.contains("Key Strategies:"));
+        assertFalse(prompt.contains("Bridge Spam"));
+        assertTrue(prompt.indexOf("Strong Cards in Meta:") < prompt.indexOf("Key Strategies:"));
+    }
+
+    @Test
+    public void testRespectsTokenBudget() {
+        StringBuilder meta = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            meta.append("Section ").append(i).append(":\n- Hog Rider pushes with elixir advantage\n\n");
+        }
+        String prompt = new PromptBuilder(catalog, 300).buildUserPrompt(deck, "Is this good?", meta.toString());
+
+        assertTrue(PromptBuilder.estimateTokens(prompt) <= 300);
+        assertTrue(prompt.contains("Section 0:"));
+    }
+
+    @Test
+    public void testFormatsCardsWithClientMetadataAndTwoDecimalAverage() {
+        List<Card> custom = List.of(
+            new Card("Hog Rider", "Building", 9, "Defense", "Rare", null),
+            new Card("Not A Card", "Troop", 3, "Support", "Common", null),
+            new Card("The Log", "Spell", 2, "SmallSpell", "Legendary", null),
+            new Card("Ice Spirit", "Troop", 0, "Cycle", "Common", null));
+
+        String prompt = new PromptBuilder(catalog, 700).buildUserPrompt(custom, "Hi", META);
+
+        assertTrue(prompt.contains("- Hog Rider (9 elixir, Defense, Building)"));
+        assertTrue(prompt.contains("- Not A Card (3 elixir, Support, Troop)"));
+        assertTrue(prompt.contains("**Average Elixir Cost:** 3.50"));
+    }
+
+    @Test
+    public void testQuestionCountsAgainstTheBudget() {
+        String longQuestion = "How should I play this deck against every archetype? ".repeat(12);
+
+        String prompt = new PromptBuilder(catalog, 300).buildUserPrompt(deck, longQuestion, META);
+
+        assertTrue(PromptBuilder.estimateTokens(prompt) <= 300, "tokens = " + PromptBuilder.estimateTokens(prompt));
+        assertTrue(prompt.contains(longQuestion));
+    }
+}
@@ -0,0 +1,71 @@
+package com.deckoptimizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RingBufferTest {
+
+    @Test
+    public void testFifoAndBounds() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, buffer.poll());
+        }
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    public void testConcurrentProducersAndConsumersLoseNothing() throws Exception {
+        RingBuffer<Integer> buffer = new RingBuffer<>(64);
+        int perProducer = 50_000;
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+        AtomicInteger consumed = new AtomicInteger();
+        // Assertions inside worker threads are swallowed, so record problems and check them here
+        Queue<Integer> duplicates = new ConcurrentLinkedQueue<>();
+
+        Thread[] threads = new Thread[4];
+        for (int p = 0; p < 2; p++) {
+            int base = p * perProducer;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+        for (int c = 2; c < 4; c++) {
+            threads[c] = new Thread(() -> {
+                while (consumed.get() < 2 * perProducer) {
+                    Integer item = buffer.poll();
+                    if (item != null) {
+                        if (!seen.add(item)) {
+                            duplicates.add(item);
+                        }
+                        consumed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(duplicates.isEmpty(), "duplicates: " + duplicates);
+        assertEquals(2 * perProducer, seen.size());
+    }
+}
@@ -0,0 +1,65 @@
+package com.deckoptimizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public class StartupTimingReportTest {
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testPhasesAndBeansUseTheirOwnTime() throws Exception {
+        Instant jvmStart = Instant.now().minusMillis(500);
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(64);
+
+        startup.start("spring.boot.application.starting").end();
+        StartupStep refresh = startup.start("spring.context.refresh");
+        StartupStep controller = startup.start("spring.beans.instantiate").tag("beanName", "deckController");
+        StartupStep service = startup.start("spring.beans.instantiate").tag("beanName", "deckService");
+        Thread.sleep(50);
+        service.end();
+        controller.end();
+        StartupStep postProcess = startup.start("spring.context.beans.post-process");
+        Thread.sleep(20);
+        postProcess.end();
+        refresh.end();
+
+        Map<String, Object> report = StartupTimingReport.summarize(startup.getBufferedTimeline(), jvmStart, Instant.now());
+
+        Map<String, Long> phases = (Map<String, Long>) report.get("phases");
+        assertEquals(List.of("starting", "refresh"), List.copyOf(phases.keySet()));
+        assertTrue(phases.get("refresh") >= 70);
+
+        Map<String, Long> refreshSteps = (Map<String, Long>) report.get("refresh");
+        assertEquals(List.of("beans.post-process"), List.copyOf(refreshSteps.keySet()));
+
+        // The controller only waited on its dependency, so the service is reported as the slow bean
+        Map<String, Long> beans = (Map<String, Long>) report.get("slowestBeans");
+        assertEquals(List.of("deckService", "deckController"), List.copyOf(beans.keySet()));
+        assertTrue(beans.get("deckService") >= 50);
+        assertTrue(beans.get("deckController") < 50);
+
+        assertTrue((Long) report.get("jvm") >= 500);
+        assertTrue((Long) report.get("ready") >= (Long) report.get("jvm"));
+    }
+
+    @Test
+    public void testAsyncRequestCountsOnlyOnceComplete() throws Exception {
+        StartupTimingReport report = new StartupTimingReport();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/analyze/batch");
+        request.setAsyncSupported(true);
+
+        report.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertFalse(report.isFirstRequestServed());
+
+        request.getAsyncContext().complete();
+        assertTrue(report.isFirstRequestServed());
+    }
+}
@@ -0,0 +1,79 @@
+package com.deckoptimizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class UpstreamSyncServiceTest {
+
+    private HttpServer server;
+    private volatile String cards = "{\"items\":[{\"id\":1,\"name\":\"Hog Rider\",\"elixirCost\":4}]}";
+    private volatile boolean sendEtag = true;
+    private final List<UpstreamSnapshotChangedEvent> events = new ArrayList<>();
+    private UpstreamSyncService sync;
+
+    @BeforeEach
+    public void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/cards", exchange -> {
+            String etag = "\"" + Integer.toHexString(cards.hashCode()) + "\"";
+            if (sendEtag && etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = cards.getBytes(StandardCharsets.UTF_8);
+            if (sendEtag) {
+                exchange.getResponseHeaders().add("ETag", etag);
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1";
+        ClashRoyaleApiService api = new ClashRoyaleApiService("test-key", baseUrl, 100, 10, 500, 1000, 4, 10, 0, 10, 5, 1000);
+        sync = new UpstreamSyncService(api, event -> events.add((UpstreamSnapshotChangedEvent) event),
+            new PersistentCacheTier(false, "", 0, 0), true);
+    }
+
+    @AfterEach
+    public void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testPublishesOnlyOnChange() {
+        assertTrue(sync.sync(ClashRoyaleApiService.CARDS_PATH));
+        assertFalse(sync.sync(ClashRoyaleApiService.CARDS_PATH));
+
+        cards = "{\"items\":[{\"id\":1,\"name\":\"Hog Rider\",\"elixirCost\":5},{\"id\":2,\"name\":\"Miner\",\"elixirCost\":3}]}";
+        assertTrue(sync.sync(ClashRoyaleApiService.CARDS_PATH));
+
+        assertEquals(2, events.size());
+        UpstreamSnapshotChangedEvent change = events.get(1);
+        assertEquals(1, change.getAdded());
+        assertEquals(0, change.getRemoved());
+        assertEquals(1, change.getChanged());
+    }
+
+    @Test
+    public void testFallsBackToContentHashWithoutEtag() {
+        sendEtag = false;
+        assertTrue(sync.sync(ClashRoyaleApiService.CARDS_PATH));
+        assertFalse(sync.sync(ClashRoyaleApiService.CARDS_PATH));
+        assertEquals(1, events.size());
+    }
+}
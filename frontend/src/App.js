@@ -1,7 +1,6 @@
 import { useState, useEffect } from "react";
 import axios from "axios";
 import "./App.css";
-import cardsData from './data/cards_full.json';
 import CardPicker from './components/CardPicker';
 import DeckAnalyzer from './components/DeckAnalyzer';
 
@@ -1,9 +1,17 @@
-import React, { useState } from 'react';
-import cardsData from '../data/cards_full.json';
+import React, { useState, useEffect } from 'react';
 
 function CardPicker({ onCardSelect, selectedCards, isOpen, onClose }) {
   const [searchTerm, setSearchTerm] = useState('');
   const [filterRole, setFilterRole] = useState('all');
+  const [cardsData, setCardsData] = useState([]);
+
+  // The backend serves the catalog with an ETag, so the browser only revalidates it
+  useEffect(() => {
+    fetch('http://localhost:8080/api/cards')
+      .then(response => response.json())
+      .then(setCardsData)
+      .catch(error => console.error('Error loading card catalog:', error));
+  }, []);
 
   const roles = [
     'All', 'WinCondition', 'Support', 'Spell', 'Defense', 'Building'
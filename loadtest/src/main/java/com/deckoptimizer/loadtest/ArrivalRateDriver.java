@@ -0,0 +1,133 @@
+package com.deckoptimizer.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-model load: requests are sent on a fixed schedule whether or not earlier ones have
+ * finished, and latency is measured from when a request was supposed to be sent. A slow
+ * server therefore shows up in the percentiles instead of quietly lowering the send rate
+ * (coordinated omission).
+ */
+public final class ArrivalRateDriver {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    /**
+     * One named request shape; {@code requests} is called once per send.
+     */
+    public record Scenario(String name, Supplier<HttpRequest> requests) {
+    }
+
+    /**
+     * Latencies of successful requests plus counts per outcome. Scheduled counts every send
+     * time in the measured window, and each of those lands in one outcome count. Rejected
+     * means the backend shed load on purpose (429/503); dropped means the driver hit its
+     * in-flight cap and never sent the request.
+     */
+    public record Result(String scenario, double targetRate, long measuredNanos, Histogram latencyMicros,
+                         long scheduled, long ok, long rejected, long errors, long dropped) {
+
+        public double achievedRate() {
+            return ok * 1e9 / Math.max(1, measuredNanos);
+        }
+    }
+
+    private final HttpClient client;
+    private final double ratePerSecond;
+    private final int maxInFlight;
+
+    public ArrivalRateDriver(HttpClient client, double ratePerSecond, int maxInFlight) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("rate must be positive");
+        }
+        this.client = client;
+        this.ratePerSecond = ratePerSecond;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Drive {@code scenario} for {@code warmup} plus {@code duration}. Only requests scheduled
+     * after the warmup are recorded. Waits up to {@code drainTimeout} for stragglers.
+     */
+    public Result run(Scenario scenario, Duration warmup, Duration duration, Duration drainTimeout) {
+        Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        LongAdder ok = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder errors = new LongAdder();
+        LongAdder dropped = new LongAdder();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger measuredInFlight = new AtomicInteger();
+        long scheduled = 0;
+
+        double intervalNanos = 1e9 / ratePerSecond;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = intended >= measureFrom;
+            if (measured) {
+                scheduled++;
+            }
+
+            if (inFlight.get() >= maxInFlight) {
+                if (measured) {
+                    dropped.increment();
+                }
+                continue;
+            }
+            inFlight.incrementAndGet();
+            if (measured) {
+                measuredInFlight.incrementAndGet();
+            }
+            client.sendAsync(scenario.requests().get(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    long latencyMicros = (System.nanoTime() - intended) / 1000;
+                    inFlight.decrementAndGet();
+                    if (!measured) {
+                        return;
+                    }
+                    measuredInFlight.decrementAndGet();
+                    if (failure != null) {
+                        errors.increment();
+                    } else if (response.statusCode() == 429 || response.statusCode() == 503) {
+                        rejected.increment();
+                    } else if (response.statusCode() >= 400) {
+                        errors.increment();
+                    } else {
+                        ok.increment();
+                        latencies.recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+                    }
+                });
+        }
+
+        long drainDeadline = System.nanoTime() + drainTimeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        // Anything still outstanding took longer than the drain timeout
+        errors.add(measuredInFlight.get());
+
+        return new Result(scenario.name(), ratePerSecond, end - measureFrom, latencies,
+            scheduled, ok.sum(), rejected.sum(), errors.sum(), dropped.sum());
+    }
+}
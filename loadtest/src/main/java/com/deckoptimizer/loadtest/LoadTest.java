@@ -0,0 +1,251 @@
+package com.deckoptimizer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Capacity test for deck-backend.
+ *
+ * <pre>
+ * # 1. stub upstreams (Clash Royale API and OpenAI) on port 9090
+ * mvn -q compile exec:java -Dexec.args="stubs --stub-port 9090 --openai-latency-ms 800 --openai-error-rate 0.02"
+ *
+ * # 2. backend pointed at the stubs
+ * mvn spring-boot:run -Dspring-boot.run.arguments="--clashroyale.api.base-url=http://localhost:9090/v1 --openai.api.base-url=http://localhost:9090/"
+ *
+ * # 3. load, one endpoint at a time
+ * mvn -q compile exec:java -Dexec.args="run --rate 200 --duration 60 --scenarios generate,custom,analyze --out target/loadtest"
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] QUERIES = {
+        "How do I play this deck?",
+        "What are the weaknesses of this deck?",
+        "Which card should I swap to beat beatdown?",
+        "How does this deck do in the current meta?"
+    };
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 && !args[0].startsWith("--") ? args[0] : "run";
+        Map<String, String> options = parseOptions(args);
+        switch (mode) {
+            case "stubs" -> runStubs(options);
+            case "run" -> runLoad(options);
+            default -> {
+                System.err.println("Unknown mode '" + mode + "', expected 'stubs' or 'run'");
+                System.exit(2);
+            }
+        }
+    }
+
+    private static void runStubs(Map<String, String> options) throws Exception {
+        StubUpstreams.Fault clashRoyale = fault(options, "cr", 20, 10, 503);
+        StubUpstreams.Fault openAi = fault(options, "openai", 800, 400, 429);
+        StubUpstreams stubs = new StubUpstreams(intOption(options, "stub-port", 9090), clashRoyale, openAi).start();
+        System.out.printf("Stub upstreams on http://localhost:%d (clash royale %s, openai %s)%n",
+            stubs.getPort(), clashRoyale, openAi);
+        System.out.printf("Start the backend with --clashroyale.api.base-url=http://localhost:%1$d/v1 "
+            + "--openai.api.base-url=http://localhost:%1$d/%n", stubs.getPort());
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println("Requests served: " + stubs.getServedCounts());
+            stubs.close();
+            stopped.countDown();
+        }));
+        stopped.await();
+    }
+
+    private static void runLoad(Map<String, String> options) throws Exception {
+        String target = options.getOrDefault("target", "http://localhost:8080");
+        double rate = Double.parseDouble(options.getOrDefault("rate", "50"));
+        Duration warmup = Duration.ofSeconds(intOption(options, "warmup", 10));
+        Duration duration = Duration.ofSeconds(intOption(options, "duration", 60));
+        Duration timeout = Duration.ofSeconds(intOption(options, "timeout", 30));
+        int maxInFlight = intOption(options, "max-in-flight", 2000);
+        int clients = intOption(options, "clients", 16);
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        String outDir = options.get("out");
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        List<JsonNode> catalog = loadCatalog(client, target);
+
+        List<ArrivalRateDriver.Result> results = new ArrayList<>();
+        for (String name : options.getOrDefault("scenarios", "generate,custom,analyze").split(",")) {
+            ArrivalRateDriver.Scenario scenario = scenario(name.strip(), target, timeout, catalog, clients, seed);
+            System.out.printf("Running %s at %.0f req/s for %ds (+%ds warmup)%n",
+                scenario.name(), rate, duration.toSeconds(), warmup.toSeconds());
+            ArrivalRateDriver.Result result = new ArrivalRateDriver(client, rate, maxInFlight)
+                .run(scenario, warmup, duration, timeout);
+            results.add(result);
+            printResult(System.out, result);
+        }
+
+        if (outDir != null) {
+            writeResults(Path.of(outDir), results);
+        }
+    }
+
+    // Request suppliers are only called from the driver thread, so sharing one Random is fine
+    static ArrivalRateDriver.Scenario scenario(String name, String target, Duration timeout,
+                                               List<JsonNode> catalog, int clients, long seed) {
+        Random random = new Random(seed);
+        AtomicLong sequence = new AtomicLong();
+        return switch (name) {
+            case "generate" -> new ArrivalRateDriver.Scenario(name, () -> HttpRequest.newBuilder(URI.create(target + "/api/generate"))
+                .timeout(timeout)
+                .GET()
+                .build());
+            case "custom" -> new ArrivalRateDriver.Scenario(name, () -> {
+                ObjectNode body = MAPPER.createObjectNode();
+                body.set("selectedCards", randomCards(catalog, random, 2 + random.nextInt(3)));
+                return post(target + "/api/generate/custom", body, timeout, null);
+            });
+            // Random decks almost never repeat, so nearly every request misses the analysis cache
+            case "analyze" -> new ArrivalRateDriver.Scenario(name, () -> {
+                long n = sequence.getAndIncrement();
+                ObjectNode body = MAPPER.createObjectNode();
+                body.set("deck", randomCards(catalog, random, 8));
+                body.put("query", QUERIES[(int) (n % QUERIES.length)]);
+                return post(target + "/api/analyze", body, timeout, "loadtest-" + (n % clients));
+            });
+            default -> throw new IllegalArgumentException("Unknown scenario: " + name);
+        };
+    }
+
+    private static HttpRequest post(String uri, JsonNode body, Duration timeout, String clientId) {
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)));
+            if (clientId != null) {
+                builder.header("X-Client-Id", clientId);
+            }
+            return builder.build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ArrayNode randomCards(List<JsonNode> catalog, Random random, int count) {
+        ArrayNode cards = MAPPER.createArrayNode();
+        List<JsonNode> remaining = new ArrayList<>(catalog);
+        for (int i = 0; i < count && !remaining.isEmpty(); i++) {
+            cards.add(remaining.remove(random.nextInt(remaining.size())));
+        }
+        return cards;
+    }
+
+    private static List<JsonNode> loadCatalog(HttpClient client, String target) throws Exception {
+        HttpResponse<byte[]> response = client.send(
+            HttpRequest.newBuilder(URI.create(target + "/api/cards")).timeout(Duration.ofSeconds(10)).build(),
+            HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Could not load card catalog from " + target + ": HTTP " + response.statusCode());
+        }
+        List<JsonNode> catalog = new ArrayList<>();
+        MAPPER.readTree(response.body()).forEach(catalog::add);
+        if (catalog.size() < 8) {
+            throw new IllegalStateException("Card catalog has only " + catalog.size() + " cards");
+        }
+        return catalog;
+    }
+
+    private static void printResult(PrintStream out, ArrivalRateDriver.Result result) {
+        Histogram h = result.latencyMicros();
+        out.printf("  %-10s target %.0f/s achieved %.1f/s  scheduled %d ok %d rejected %d errors %d dropped %d%n",
+            result.scenario(), result.targetRate(), result.achievedRate(),
+            result.scheduled(), result.ok(), result.rejected(), result.errors(), result.dropped());
+        out.printf("  %-10s p50 %.2f ms  p95 %.2f ms  p99 %.2f ms  p999 %.2f ms  max %.2f ms%n", "",
+            millis(h, 50), millis(h, 95), millis(h, 99), millis(h, 99.9), h.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * One .hgrm percentile file per scenario (plot with HdrHistogram's plotter) and a
+     * summary.json to diff against a baseline.
+     */
+    private static void writeResults(Path dir, List<ArrivalRateDriver.Result> results) throws IOException {
+        Files.createDirectories(dir);
+        ObjectNode summary = MAPPER.createObjectNode();
+        for (ArrivalRateDriver.Result result : results) {
+            Histogram h = result.latencyMicros();
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(result.scenario() + ".hgrm")))) {
+                h.outputPercentileDistribution(out, 1000.0);
+            }
+            summary.putObject(result.scenario())
+                .put("targetRate", result.targetRate())
+                .put("achievedRate", result.achievedRate())
+                .put("scheduled", result.scheduled())
+                .put("ok", result.ok())
+                .put("rejected", result.rejected())
+                .put("errors", result.errors())
+                .put("dropped", result.dropped())
+                .put("p50Ms", millis(h, 50))
+                .put("p95Ms", millis(h, 95))
+                .put("p99Ms", millis(h, 99))
+                .put("p999Ms", millis(h, 99.9))
+                .put("maxMs", h.getMaxValue() / 1000.0);
+        }
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(dir.resolve("summary.json").toFile(), summary);
+        System.out.println("Wrote results to " + dir.toAbsolutePath());
+    }
+
+    private static StubUpstreams.Fault fault(Map<String, String> options, String prefix,
+                                             long latencyMs, long jitterMs, int errorStatus) {
+        return new StubUpstreams.Fault(
+            Long.parseLong(options.getOrDefault(prefix + "-latency-ms", String.valueOf(latencyMs))),
+            Long.parseLong(options.getOrDefault(prefix + "-jitter-ms", String.valueOf(jitterMs))),
+            Double.parseDouble(options.getOrDefault(prefix + "-error-rate", "0")),
+            Integer.parseInt(options.getOrDefault(prefix + "-error-status", String.valueOf(errorStatus))));
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--")) {
+                String key = args[i].substring(2);
+                String value = i + 1 < args.length && !args[i + 1].startsWith("--") ? args[++i] : "true";
+                options.put(key, value);
+            }
+        }
+        return options;
+    }
+}
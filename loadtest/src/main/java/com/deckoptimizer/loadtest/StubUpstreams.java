@@ -0,0 +1,183 @@
+package com.deckoptimizer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-ins for the Clash Royale API and the OpenAI chat completions endpoint, served
+ * from one port. Point the backend at them with
+ * {@code --clashroyale.api.base-url=http://localhost:PORT/v1 --openai.api.base-url=http://localhost:PORT/}.
+ *
+ * Each upstream has its own {@link Fault}: a base latency, exponential jitter on top of it
+ * and a fraction of requests that fail with a given status.
+ */
+public final class StubUpstreams implements AutoCloseable {
+
+    /**
+     * Latency is {@code latencyMs} plus an exponentially distributed delay with mean {@code jitterMs}.
+     */
+    public record Fault(long latencyMs, long jitterMs, double errorRate, int errorStatus) {
+        public static final Fault NONE = new Fault(0, 0, 0.0, 503);
+
+        long sampleDelayMs() {
+            if (jitterMs <= 0) {
+                return latencyMs;
+            }
+            double u = ThreadLocalRandom.current().nextDouble();
+            return latencyMs + (long) (-jitterMs * Math.log(1.0 - u));
+        }
+
+        boolean shouldFail() {
+            return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+        }
+    }
+
+    private static final String[][] CARDS = {
+        {"Hog Rider", "4", "Rare"}, {"Musketeer", "4", "Rare"}, {"The Log", "2", "Legendary"},
+        {"Fireball", "4", "Rare"}, {"Ice Spirit", "1", "Common"}, {"Skeletons", "1", "Common"},
+        {"Cannon", "3", "Common"}, {"Ice Golem", "2", "Rare"}, {"Golem", "8", "Epic"},
+        {"Night Witch", "4", "Legendary"}, {"Baby Dragon", "4", "Epic"}, {"Lightning", "6", "Epic"},
+        {"X-Bow", "6", "Epic"}, {"Tesla", "4", "Common"}, {"Archers", "3", "Common"},
+        {"Zap", "2", "Common"}
+    };
+
+    private static final String ANALYSIS = """
+        **Strengths**
+        - Solid spell coverage and a cheap cycle around the win condition.
+        **Weaknesses**
+        - Struggles against heavy beatdown without a dedicated tank killer.
+        **Tips**
+        - Cycle back to the win condition quickly and keep elixir parity on defense.""";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Fault clashRoyale;
+    private final Fault openAi;
+    private final byte[] cardsJson;
+    private final Map<String, AtomicLong> served = new ConcurrentHashMap<>();
+
+    public StubUpstreams(int port, Fault clashRoyale, Fault openAi) throws IOException {
+        this.clashRoyale = clashRoyale;
+        this.openAi = openAi;
+        this.cardsJson = mapper.writeValueAsBytes(cardsResponse());
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        // Handlers sleep to simulate latency, so each request needs its own thread
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "stub-upstream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/v1/cards", faulty("cards", clashRoyale, exchange -> respond(exchange, 200, cardsJson)));
+        server.createContext("/v1/locations/global/seasons/current", faulty("season", clashRoyale,
+            exchange -> respond(exchange, 200, "{\"id\":\"stub-season\"}".getBytes(StandardCharsets.UTF_8))));
+        server.createContext("/v1/globaltournaments", faulty("tournaments", clashRoyale,
+            exchange -> respond(exchange, 200, "{\"items\":[]}".getBytes(StandardCharsets.UTF_8))));
+        server.createContext("/v1/chat/completions", faulty("chat", openAi, this::chatCompletion));
+    }
+
+    public StubUpstreams start() {
+        server.start();
+        return this;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Requests served per route, including injected failures.
+     */
+    public Map<String, Long> getServedCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        served.forEach((route, count) -> counts.put(route, count.get()));
+        return counts;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private HttpHandler faulty(String route, Fault fault, HttpHandler handler) {
+        return exchange -> {
+            try (exchange) {
+                exchange.getRequestBody().readAllBytes();
+                served.computeIfAbsent(route, r -> new AtomicLong()).incrementAndGet();
+                long delay = fault.sampleDelayMs();
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
+                if (fault.shouldFail()) {
+                    respond(exchange, fault.errorStatus(),
+                        "{\"error\":{\"message\":\"injected failure\",\"type\":\"stub\"}}".getBytes(StandardCharsets.UTF_8));
+                } else {
+                    handler.handle(exchange);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private void chatCompletion(HttpExchange exchange) throws IOException {
+        ObjectNode message = mapper.createObjectNode()
+            .put("role", "assistant")
+            .put("content", ANALYSIS);
+        ObjectNode choice = mapper.createObjectNode().put("index", 0).put("finish_reason", "stop");
+        choice.set("message", message);
+
+        ObjectNode body = mapper.createObjectNode()
+            .put("id", "chatcmpl-stub")
+            .put("object", "chat.completion")
+            .put("created", System.currentTimeMillis() / 1000)
+            .put("model", "gpt-3.5-turbo");
+        body.putArray("choices").add(choice);
+        body.putObject("usage")
+            .put("prompt_tokens", 0)
+            .put("completion_tokens", 0)
+            .put("total_tokens", 0);
+        respond(exchange, 200, mapper.writeValueAsBytes(body));
+    }
+
+    private JsonNode cardsResponse() {
+        ObjectNode body = mapper.createObjectNode();
+        ArrayNode items = body.putArray("items");
+        for (int i = 0; i < CARDS.length; i++) {
+            items.addObject()
+                .put("id", 26000000 + i)
+                .put("name", CARDS[i][0])
+                .put("elixirCost", Integer.parseInt(CARDS[i][1]))
+                .put("rarity", CARDS[i][2]);
+        }
+        return body;
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
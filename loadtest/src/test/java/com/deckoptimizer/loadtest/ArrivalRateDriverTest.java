@@ -0,0 +1,73 @@
+package com.deckoptimizer.loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+
+public class ArrivalRateDriverTest {
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    public void testSendsOnScheduleAndMeasuresFromIntendedStart() throws Exception {
+        StubUpstreams.Fault slow = new StubUpstreams.Fault(50, 0, 0.0, 503);
+        try (StubUpstreams stubs = new StubUpstreams(0, slow, StubUpstreams.Fault.NONE).start()) {
+            ArrivalRateDriver.Scenario cards = scenario("cards", stubs, "/v1/cards", "GET");
+
+            ArrivalRateDriver.Result result = new ArrivalRateDriver(client, 100, 1000)
+                .run(cards, Duration.ofMillis(200), Duration.ofSeconds(1), Duration.ofSeconds(5));
+
+            // 100/s over the measured second; every request is sent and answered
+            assertEquals(100, result.scheduled());
+            assertEquals(100, result.ok());
+            assertEquals(0, result.errors());
+            assertEquals(0, result.dropped());
+            assertTrue(result.latencyMicros().getValueAtPercentile(50) >= 50_000);
+            // Sends are not held back by the 50 ms responses. The bound is loose for loaded machines
+            assertTrue(result.latencyMicros().getMaxValue() < 2_000_000, "max = " + result.latencyMicros().getMaxValue());
+        }
+    }
+
+    @Test
+    public void testInjectedFailuresAreCountedAsRejected() throws Exception {
+        StubUpstreams.Fault failing = new StubUpstreams.Fault(0, 0, 1.0, 429);
+        try (StubUpstreams stubs = new StubUpstreams(0, StubUpstreams.Fault.NONE, failing).start()) {
+            ArrivalRateDriver.Scenario chat = scenario("chat", stubs, "/v1/chat/completions", "POST");
+
+            ArrivalRateDriver.Result result = new ArrivalRateDriver(client, 50, 1000)
+                .run(chat, Duration.ZERO, Duration.ofMillis(500), Duration.ofSeconds(5));
+
+            assertEquals(25, result.scheduled());
+            assertEquals(0, result.ok());
+            assertEquals(25, result.rejected());
+            assertEquals(result.rejected(), stubs.getServedCounts().get("chat"));
+        }
+    }
+
+    @Test
+    public void testDropsRequestsOverTheInFlightCap() throws Exception {
+        StubUpstreams.Fault stalled = new StubUpstreams.Fault(2000, 0, 0.0, 503);
+        try (StubUpstreams stubs = new StubUpstreams(0, stalled, StubUpstreams.Fault.NONE).start()) {
+            ArrivalRateDriver.Scenario cards = scenario("cards", stubs, "/v1/cards", "GET");
+
+            ArrivalRateDriver.Result result = new ArrivalRateDriver(client, 100, 5)
+                .run(cards, Duration.ZERO, Duration.ofMillis(500), Duration.ofSeconds(5));
+
+            // The first five stall for 2 s, so every later send in the 500 ms window is dropped
+            assertEquals(50, result.scheduled());
+            assertEquals(5, result.ok());
+            assertEquals(45, result.dropped());
+        }
+    }
+
+    private static ArrivalRateDriver.Scenario scenario(String name, StubUpstreams stubs, String path, String method) {
+        URI uri = URI.create("http://127.0.0.1:" + stubs.getPort() + path);
+        return new ArrivalRateDriver.Scenario(name, () -> HttpRequest.newBuilder(uri)
+            .method(method, HttpRequest.BodyPublishers.ofString("{}"))
+            .build());
+    }
+}